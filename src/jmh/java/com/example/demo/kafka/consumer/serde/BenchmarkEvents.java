@@ -0,0 +1,65 @@
+package com.example.demo.kafka.consumer.serde;
+
+import java.util.List;
+import java.util.Map;
+
+import com.example.avro.AvroAddress;
+import com.example.avro.AvroEventWrapper;
+import com.example.avro.AvroUser;
+import com.example.demo.kafka.factory.EventFactory;
+
+import io.confluent.kafka.schemaregistry.client.MockSchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.serializers.KafkaAvroSerializer;
+
+/**
+ * Sample user events shared by the serde benchmarks, serialized in the Confluent wire format
+ * against an in-memory schema registry.
+ */
+final class BenchmarkEvents {
+
+    static final String TOPIC = "user-update-avro";
+    static final String INTERN_FIELDS = "eventType,entityType,source,version,producerRegion,topic";
+
+    private BenchmarkEvents() {}
+
+    static SchemaRegistryClient registry() {
+        return new MockSchemaRegistryClient();
+    }
+
+    static Map<String, Object> serdeConfigs() {
+        return Map.of("schema.registry.url", "mock://benchmark", "specific.avro.reader", true);
+    }
+
+    static AvroUser user() {
+        return AvroUser.newBuilder()
+                .setId(42L)
+                .setName("Jane Doe")
+                .setEmail("jane.doe@example.com")
+                .setAge(34)
+                .setAvroAddresses(List.of(
+                        address(1L, "1 Main Street", "Springfield", "12345"),
+                        address(2L, "200 Market Street", "Shelbyville", "67890")))
+                .build();
+    }
+
+    static AvroEventWrapper event() {
+        return EventFactory.createAvro(user(), "update", "user", "user-service", TOPIC, "v1");
+    }
+
+    static byte[] serialize(SchemaRegistryClient registry, Object value) {
+        try (KafkaAvroSerializer serializer = new KafkaAvroSerializer(registry, serdeConfigs())) {
+            return serializer.serialize(TOPIC, value);
+        }
+    }
+
+    private static AvroAddress address(long id, String street, String city, String zip) {
+        return AvroAddress.newBuilder()
+                .setId(id)
+                .setStreet(street)
+                .setCity(city)
+                .setZip(zip)
+                .setUserId(42L)
+                .build();
+    }
+}
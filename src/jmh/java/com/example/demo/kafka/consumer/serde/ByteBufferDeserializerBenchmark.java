@@ -0,0 +1,104 @@
+package com.example.demo.kafka.consumer.serde;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.utils.Utils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import com.example.demo.kafka.factory.EventFactory;
+import com.example.demo.kafka.factory.EventWrapper;
+
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+
+/**
+ * Decoding record values handed over as {@link ByteBuffer} slices of a fetched batch: in place
+ * from the backing array, against first copying each value into its own array, which is what
+ * the default {@code Deserializer.deserialize(topic, headers, ByteBuffer)} does. Run with
+ * {@code -prof gc}; the difference in {@code gc.alloc.rate.norm} is the per-record copy.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ByteBufferDeserializerBenchmark {
+
+    private static final String JSON_TOPIC = "user-update-json";
+    // Values sit inside a larger fetch buffer, as consumer records do
+    private static final int FETCH_BUFFER_SIZE = 16384;
+    private static final int VALUE_OFFSET = 512;
+
+    private final Headers headers = new RecordHeaders();
+    private ByteBuffer avroValue;
+    private ByteBuffer jsonValue;
+    private ReusingAvroDeserializer avro;
+    private JsonDeserializer<Object> copyingJson;
+    private ByteBufferJsonDeserializer<Object> json;
+
+    @Setup
+    public void setUp() {
+        SchemaRegistryClient registry = BenchmarkEvents.registry();
+        avroValue = inFetchBuffer(BenchmarkEvents.serialize(registry, BenchmarkEvents.event()));
+        Map<String, Object> avroConfigs = new HashMap<>(BenchmarkEvents.serdeConfigs());
+        avroConfigs.put(ReusingAvroDeserializer.INTERN_FIELDS_CONFIG, BenchmarkEvents.INTERN_FIELDS);
+        avro = new ReusingAvroDeserializer(registry);
+        avro.configure(avroConfigs, false);
+
+        EventWrapper<String> event = EventFactory.createJson("{\"id\":42,\"name\":\"Jane Doe\",\"email\":\"jane.doe@example.com\",\"age\":34}",
+                "update", "user", "user-service", JSON_TOPIC, "v1");
+        try (JsonSerializer<EventWrapper<String>> serializer = new JsonSerializer<>()) {
+            jsonValue = inFetchBuffer(serializer.serialize(JSON_TOPIC, event));
+        }
+        Map<String, Object> jsonConfigs = Map.of(
+                JsonDeserializer.VALUE_DEFAULT_TYPE, EventWrapper.class.getName(),
+                JsonDeserializer.USE_TYPE_INFO_HEADERS, false,
+                JsonDeserializer.TRUSTED_PACKAGES, "*");
+        copyingJson = new JsonDeserializer<>();
+        copyingJson.configure(jsonConfigs, false);
+        json = new ByteBufferJsonDeserializer<>();
+        json.configure(jsonConfigs, false);
+    }
+
+    private static ByteBuffer inFetchBuffer(byte[] value) {
+        byte[] batch = new byte[FETCH_BUFFER_SIZE];
+        System.arraycopy(value, 0, batch, VALUE_OFFSET, value.length);
+        return ByteBuffer.wrap(batch, VALUE_OFFSET, value.length).slice();
+    }
+
+    @Benchmark
+    public Object avroCopied() {
+        return avro.deserialize(BenchmarkEvents.TOPIC, Utils.toArray(avroValue));
+    }
+
+    @Benchmark
+    public Object avroInPlace() {
+        return avro.deserialize(BenchmarkEvents.TOPIC, headers, avroValue);
+    }
+
+    @Benchmark
+    public Object jsonCopied() {
+        return copyingJson.deserialize(JSON_TOPIC, headers, jsonValue);
+    }
+
+    @Benchmark
+    public Object jsonInPlace() {
+        return json.deserialize(JSON_TOPIC, headers, jsonValue);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.demo.kafka.consumer.serde;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.serializers.KafkaAvroDeserializer;
+
+/**
+ * {@link ReusingAvroDeserializer} against the {@link KafkaAvroDeserializer} it replaces, for a
+ * v1 user envelope. Run with {@code -prof gc} to compare bytes allocated per record
+ * ({@code gc.alloc.rate.norm}).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReusingAvroDeserializerBenchmark {
+
+    private byte[] value;
+    private KafkaAvroDeserializer kafkaAvro;
+    private ReusingAvroDeserializer reusing;
+    private ReusingAvroDeserializer lazy;
+
+    @Setup
+    public void setUp() {
+        SchemaRegistryClient registry = BenchmarkEvents.registry();
+        value = BenchmarkEvents.serialize(registry, BenchmarkEvents.event());
+        kafkaAvro = new KafkaAvroDeserializer(registry, BenchmarkEvents.serdeConfigs());
+        reusing = reusingDeserializer(registry, false);
+        lazy = reusingDeserializer(registry, true);
+    }
+
+    private static ReusingAvroDeserializer reusingDeserializer(SchemaRegistryClient registry, boolean lazyEnvelope) {
+        Map<String, Object> configs = new HashMap<>(BenchmarkEvents.serdeConfigs());
+        configs.put(ReusingAvroDeserializer.INTERN_FIELDS_CONFIG, BenchmarkEvents.INTERN_FIELDS);
+        configs.put(ReusingAvroDeserializer.LAZY_ENVELOPE_CONFIG, lazyEnvelope);
+        ReusingAvroDeserializer deserializer = new ReusingAvroDeserializer(registry);
+        deserializer.configure(configs, false);
+        return deserializer;
+    }
+
+    @Benchmark
+    public Object kafkaAvroDeserializer() {
+        return kafkaAvro.deserialize(BenchmarkEvents.TOPIC, value);
+    }
+
+    @Benchmark
+    public Object reusingDeserializer() {
+        return reusing.deserialize(BenchmarkEvents.TOPIC, value);
+    }
+
+    // Routing reads only the envelope's type fields; the payload stays undecoded
+    @Benchmark
+    public CharSequence reusingLazyEnvelopeEventType() {
+        return ((AvroEnvelope) lazy.deserialize(BenchmarkEvents.TOPIC, value)).getEventType();
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.demo.kafka.consumer.serde;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.specific.SpecificData;
+import org.apache.avro.specific.SpecificDatumWriter;
+import org.apache.avro.specific.SpecificRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.avro.AvroUser;
+
+/**
+ * {@link SpecificRecordConverter} against the reflective conversion it replaced in
+ * {@code EventWrapperAvroDeserializer}, with Avro's own {@link SpecificData#deepCopy} as a
+ * reference. The input is a {@link GenericRecord} user with two addresses, decoded from bytes
+ * so its strings are {@code Utf8} as on the consumer side.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SpecificRecordConverterBenchmark {
+
+    private GenericRecord record;
+    private final SpecificRecordConverter converter = new SpecificRecordConverter();
+
+    @Setup
+    public void setUp() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+        new SpecificDatumWriter<AvroUser>(AvroUser.class).write(BenchmarkEvents.user(), encoder);
+        encoder.flush();
+        record = new GenericDatumReader<GenericRecord>(AvroUser.getClassSchema())
+                .read(null, DecoderFactory.get().binaryDecoder(out.toByteArray(), null));
+    }
+
+    @Benchmark
+    public AvroUser copyPlan() {
+        return converter.convert(record, AvroUser.class);
+    }
+
+    @Benchmark
+    public Object specificDataDeepCopy() {
+        return SpecificData.get().deepCopy(AvroUser.getClassSchema(), record);
+    }
+
+    /**
+     * The replaced code path: class lookup by schema name, reflective construction and one
+     * setter lookup and invocation per field. Like that code, nested records are not converted.
+     */
+    @Benchmark
+    public SpecificRecord reflective() throws ReflectiveOperationException {
+        Class<?> payloadClass = Class.forName(record.getSchema().getFullName());
+        SpecificRecord payload = (SpecificRecord) payloadClass.getDeclaredConstructor().newInstance();
+        for (Schema.Field field : record.getSchema().getFields()) {
+            setter(payloadClass, field.name()).invoke(payload, record.get(field.name()));
+        }
+        return payload;
+    }
+
+    // By name only: the replaced code looked setters up by the value's class, which fails for Utf8 strings
+    private static Method setter(Class<?> type, String fieldName) throws NoSuchMethodException {
+        String name = "set" + Character.toUpperCase(fieldName.charAt(0)) + fieldName.substring(1);
+        for (Method method : type.getMethods()) {
+            if (method.getName().equals(name) && method.getParameterCount() == 1) {
+                return method;
+            }
+        }
+        throw new NoSuchMethodException(type.getName() + "." + name);
+    }
+}
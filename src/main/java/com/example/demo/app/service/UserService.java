@@ -37,8 +37,9 @@ public class UserService {
         return userRepository.findById(id);
     }
 
+    @Transactional
     public User update(Long id, User userDetails) {
-        return userRepository.findById(id)
+        User saved = userRepository.findById(id)
                 .map(user -> {
                     user.setName(userDetails.getName());
                     user.setEmail(userDetails.getEmail());
@@ -50,6 +51,9 @@ public class UserService {
                     userDetails.setId(id);
                     return userRepository.save(userDetails);
                 });
+        // Unchanged states are dropped by the publisher only with kafka.fingerprint.producer.skip-unchanged on (off by default)
+        userSimplePublisher.publishUpdate(saved, KafkaEventFormat.AVRO);
+        return saved;
     }
 
     public void deleteById(Long id) {
@@ -0,0 +1,22 @@
+package com.example.demo.kafka.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "kafka.consumer.backpressure")
+public class BackpressureConfig {
+
+    public enum Scope { ALL, ENTITY }
+
+    private boolean enabled = true;
+    private long checkIntervalMs = 500;
+    private Scope scope = Scope.ALL;             // ENTITY pauses only the partitions of the busiest entity type
+
+    // Watermarks on JDBC pool usage (active connections / maximum pool size)
+    private double highWatermark = 0.9;          // Pause at or above this usage, or when threads wait for a connection
+    private double lowWatermark = 0.5;           // Resume at or below this usage with no waiting threads
+    private int pendingThreshold = 1;            // Threads awaiting a connection that count as saturated
+}
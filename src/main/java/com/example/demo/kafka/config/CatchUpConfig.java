@@ -0,0 +1,29 @@
+package com.example.demo.kafka.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "kafka.consumer.catch-up")
+public class CatchUpConfig {
+
+    private boolean enabled = true;
+    private long checkIntervalMs = 15000;
+    private long enterLag = 10000;               // Switch a listener to catch-up mode above this lag
+    private long exitLag = 500;                  // Switch back to live mode below this lag
+
+    // Consumer overrides applied while catching up
+    private int maxPollRecords = 1000;
+    private int fetchMinBytes = 1048576;         // 1MB
+    private int fetchMaxWaitMs = 500;
+    private int maxPartitionFetchBytes = 4194304; // 4MB
+
+    // Group commit bounds used while catching up; records above the partition's offset watermark are still deduped by id
+    private int persistBatchSize = 500;
+    private long persistFlushIntervalMs = 1000;
+
+    // Log one in N records while catching up
+    private int logSampleRate = 100;
+}
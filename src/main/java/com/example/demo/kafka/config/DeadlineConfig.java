@@ -0,0 +1,25 @@
+package com.example.demo.kafka.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "kafka.consumer.deadline")
+public class DeadlineConfig {
+
+    private boolean enabled = false;
+    private long defaultBudgetMs = 10000;              // Budget for entity types without their own entry
+    private Map<String, Long> budgets = new HashMap<>(); // Budget per entity type (topic prefix), e.g. user: 2000
+    private int handlerThreads = 16;                   // Workers running handlers; when all are busy handlers run unbounded on the consumer thread
+
+    // Parking
+    private int maxParks = 3;                          // Times an overrunning record is re-queued before going to the DLT
+    private String parkHeader = "x-deadline-parks";    // Header counting the parks of a record
+    private String retryTopicSuffix = "-retry";        // Parked records go to <topic><suffix>, consumed by the same listeners
+    private long parkSendTimeoutMs = 10000;            // Wait for the parked copy to be acknowledged before acking the original
+}
@@ -0,0 +1,25 @@
+package com.example.demo.kafka.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "kafka.consumer.elastic")
+public class ElasticConcurrencyConfig {
+
+    private boolean enabled = false;             // Turns off static membership: removed members must leave the group at once
+    private int minConcurrency = 1;
+    private int maxConcurrency = 10;             // Further capped by the partition count of the listener's topics
+    private long checkIntervalMs = 30000;
+
+    // Scaling triggers
+    private long scaleUpLag = 1000;              // Total lag above which more threads are considered
+    private long scaleDownLag = 100;             // Total lag below which fewer threads are considered
+    private long targetDrainSeconds = 60;        // Scale up when lag * avg processing time / threads exceeds this
+
+    // Hysteresis
+    private int stableChecks = 3;                // Consecutive checks a condition must hold before acting
+    private long cooldownMs = 120000;            // Minimum time between two adjustments of the same listener
+}
@@ -0,0 +1,15 @@
+package com.example.demo.kafka.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "kafka.envelope")
+public class EnvelopeConfig {
+
+    private int avroVersion = 1;    // Envelope written by producers: 1 (AvroEventWrapper) or 2 (AvroEventWrapperV2); consumers read both
+    private boolean metadataHeaders = true;   // Producers copy envelope metadata into binary record headers (see EventHeaders)
+    private boolean dropExpired = false;      // Consumers skip records older than their TTL header; replayed records are never dropped
+}
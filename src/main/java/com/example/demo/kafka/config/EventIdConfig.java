@@ -0,0 +1,18 @@
+package com.example.demo.kafka.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "kafka.event-id")
+public class EventIdConfig {
+
+    private Generator generator = Generator.ULID;   // ULID (time-ordered) or UUID (random, the old format)
+    private Integer nodeId;                         // 0-65535, unique per instance (null = derived from HOSTNAME)
+
+    public enum Generator {
+        ULID, UUID
+    }
+}
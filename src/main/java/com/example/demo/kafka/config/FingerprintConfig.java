@@ -0,0 +1,28 @@
+package com.example.demo.kafka.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "kafka.fingerprint")
+public class FingerprintConfig {
+
+    private boolean enabled = true;
+    private String headerName = "x-content-fingerprint";
+    private Producer producer = new Producer();
+    private Consumer consumer = new Consumer();
+
+    @Data
+    public static class Producer {
+        private boolean skipUnchanged = false;   // Don't send update events identical to the last one sent
+        private int cacheSize = 10000;           // Max keys tracked per instance
+    }
+
+    @Data
+    public static class Consumer {
+        private boolean skipUnchanged = true;    // Don't apply update events identical to the last one applied
+        private int cacheSize = 10000;           // Max keys tracked per instance
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.demo.kafka.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "kafka.consumer.group-commit")
+public class GroupCommitConfig {
+
+    // When enabled, processing records are written by the shared writer after the listener's
+    // transaction has committed, so a handler's database changes and its processing record are
+    // no longer atomic: a crash in between re-delivers the record, which the handler then
+    // applies a second time. Disable to write the record inside the listener's transaction.
+    private boolean enabled = true;
+    private int maxBatchSize = 200;              // Rows per multi-row insert
+    private long maxDelayMs = 20;                // Longest a submitted row waits for its group
+    private int maxPending = 5000;               // Submitters block above this many queued entries
+    private int flushAttempts = 3;               // Attempts of the multi-row insert before falling back to single rows
+    private long retryBackoffMs = 1000;          // Wait before re-writing rows that failed; their partitions' acks stay queued
+}
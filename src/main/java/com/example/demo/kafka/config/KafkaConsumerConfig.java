@@ -2,6 +2,7 @@ package com.example.demo.kafka.config;
 
 import lombok.RequiredArgsConstructor;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.CooperativeStickyAssignor;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -10,9 +11,19 @@ import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.listener.CommonErrorHandler;
+import org.springframework.kafka.listener.ContainerProperties;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 import io.confluent.kafka.serializers.KafkaAvroDeserializer;
 
+import com.example.demo.kafka.config.KafkaTopicsConfig.ConsumerProfile;
+import com.example.demo.kafka.consumer.rebalance.PartitionStateRebalanceListener;
+import com.example.demo.kafka.consumer.serde.ByteBufferJsonDeserializer;
+import com.example.demo.kafka.consumer.serde.ReusingAvroDeserializer;
+import com.example.demo.kafka.metrics.ConsumerMetricsInterceptor;
+import com.example.demo.kafka.metrics.KafkaMetricsService;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -21,6 +32,9 @@ import java.util.Map;
 public class KafkaConsumerConfig {
 
     private final CommonErrorHandler kafkaErrorHandler;
+    private final PartitionStateRebalanceListener rebalanceListener;
+    private final KafkaMetricsService kafkaMetricsService;
+    private final ElasticConcurrencyConfig elasticConcurrencyConfig;
 
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
@@ -67,7 +81,51 @@ public class KafkaConsumerConfig {
     @Value("${kafka.consumer.concurrency:3}")
     private int concurrency;
 
-    private Map<String, Object> baseConsumerConfig() {
+    @Value("${kafka.consumer.assignment-strategy:}")
+    private String assignmentStrategy;
+
+    @Value("${kafka.consumer.static-membership.enabled:true}")
+    private boolean staticMembership;
+
+    @Value("${kafka.consumer.instance-id:}")
+    private String instanceId;
+
+    @Value("${kafka.consumer.avro.reusing-deserializer:true}")
+    private boolean reusingAvroDeserializer;
+
+    @Value("${kafka.consumer.avro.intern-fields:eventType,entityType,source,version,producerRegion,topic}")
+    private String avroInternFields;
+
+    @Value("${kafka.consumer.avro.intern-table-size:4096}")
+    private int avroInternTableSize;
+
+    @Value("${kafka.consumer.avro.lazy-envelope:true}")
+    private boolean avroLazyEnvelope;
+
+    public String getGroupId() {
+        return groupId;
+    }
+
+    /**
+     * Stable per-host identity used for client.id and group.instance.id, so a restarted instance
+     * rejoins with the same member identity instead of triggering a full rebalance.
+     */
+    private String resolveInstanceId() {
+        if (instanceId != null && !instanceId.isBlank()) {
+            return instanceId.trim();
+        }
+        String hostname = System.getenv("HOSTNAME");
+        if (hostname != null && !hostname.isBlank()) {
+            return hostname;
+        }
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            throw new IllegalStateException("Cannot derive consumer instance id; set kafka.consumer.instance-id", e);
+        }
+    }
+
+    private Map<String, Object> baseConsumerConfig(String memberName) {
         Map<String, Object> configProps = new HashMap<>();
         configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
@@ -84,21 +142,110 @@ public class KafkaConsumerConfig {
         configProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, enableAutoCommit);
         
         // Additional best practices
-        configProps.put(ConsumerConfig.CLIENT_ID_CONFIG, "consumer-" + System.currentTimeMillis());
+        String memberId = resolveInstanceId() + "-" + memberName;
+        configProps.put(ConsumerConfig.CLIENT_ID_CONFIG, "consumer-" + memberId);
         configProps.put(ConsumerConfig.CHECK_CRCS_CONFIG, true);
         configProps.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
+
+        // Rebalance behaviour: incremental assignment and static membership. The container
+        // index ("-0", "-1", ...) is appended to group.instance.id by the consumer factory.
+        // Static members do not send LeaveGroup, so with elastic concurrency the members removed
+        // on a scale-down would keep their partitions until session.timeout.ms; it is left off
+        // while elastic concurrency is enabled.
+        configProps.put(ConsumerConfig.PARTITION_ASSIGNMENT_STRATEGY_CONFIG,
+                assignmentStrategy != null && !assignmentStrategy.isBlank()
+                        ? assignmentStrategy : CooperativeStickyAssignor.class.getName());
+        if (staticMembership && !elasticConcurrencyConfig.isEnabled()) {
+            configProps.put(ConsumerConfig.GROUP_INSTANCE_ID_CONFIG, memberId);
+        }
         
         return configProps;
     }
 
+    /**
+     * Settings for manually assigned replay consumers: their own group id, no static membership
+     * and no auto commit.
+     */
+    public Map<String, Object> replayConsumerConfig(KafkaEventFormat format, String replayGroupId, String memberName) {
+        Map<String, Object> configProps = formatConsumerConfig(format, memberName);
+        configProps.put(ConsumerConfig.GROUP_ID_CONFIG, replayGroupId);
+        configProps.remove(ConsumerConfig.GROUP_INSTANCE_ID_CONFIG);
+        configProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        return configProps;
+    }
+
+    private Map<String, Object> formatConsumerConfig(KafkaEventFormat format, String memberName) {
+        Map<String, Object> configProps = baseConsumerConfig(memberName);
+        configProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        switch (format) {
+            case AVRO:
+                configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG,
+                        reusingAvroDeserializer ? ReusingAvroDeserializer.class : KafkaAvroDeserializer.class);
+                configProps.put("schema.registry.url", schemaRegistryUrl);
+                configProps.put("specific.avro.reader", specificAvroReader);
+                configProps.put(ReusingAvroDeserializer.INTERN_FIELDS_CONFIG, avroInternFields);
+                configProps.put(ReusingAvroDeserializer.INTERN_TABLE_SIZE_CONFIG, avroInternTableSize);
+                configProps.put(ReusingAvroDeserializer.LAZY_ENVELOPE_CONFIG, avroLazyEnvelope);
+                break;
+            case JSON:
+                configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteBufferJsonDeserializer.class);
+                configProps.put(JsonDeserializer.TRUSTED_PACKAGES, trustedPackages);
+                break;
+            case STRING:
+                configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+                break;
+        }
+        return configProps;
+    }
+
+    /**
+     * Builds a dedicated container factory for a consumer tuning profile: the format's consumer
+     * settings with the profile's fetch/poll overrides, and the profile's container settings.
+     */
+    public ConcurrentKafkaListenerContainerFactory<String, Object> profileContainerFactory(KafkaEventFormat format, String profileName, ConsumerProfile profile) {
+        Map<String, Object> configProps = formatConsumerConfig(format, format.name().toLowerCase() + "-" + profileName);
+        putIfSet(configProps, ConsumerConfig.FETCH_MIN_BYTES_CONFIG, profile.getFetchMinBytes());
+        putIfSet(configProps, ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, profile.getFetchMaxWaitMs());
+        putIfSet(configProps, ConsumerConfig.MAX_PARTITION_FETCH_BYTES_CONFIG, profile.getMaxPartitionFetchBytes());
+        putIfSet(configProps, ConsumerConfig.MAX_POLL_RECORDS_CONFIG, profile.getMaxPollRecords());
+        putIfSet(configProps, ConsumerConfig.MAX_POLL_INTERVAL_MS_CONFIG, profile.getMaxPollIntervalMs());
+
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(configProps));
+        factory.setCommonErrorHandler(kafkaErrorHandler);
+        factory.getContainerProperties().setConsumerRebalanceListener(rebalanceListener);
+        factory.setRecordInterceptor(new ConsumerMetricsInterceptor<>(kafkaMetricsService));
+        factory.setBatchInterceptor(new ConsumerMetricsInterceptor<>(kafkaMetricsService));
+        factory.getContainerProperties().setAckMode(resolveAckMode(profile.getAckMode()));
+
+        factory.setConcurrency(profile.getConcurrency() != null ? profile.getConcurrency() : concurrency);
+        factory.getContainerProperties().setPollTimeout(profile.getPollTimeoutMs() != null ? profile.getPollTimeoutMs() : 3000);
+        factory.getContainerProperties().setSyncCommits(profile.getSyncCommits() != null ? profile.getSyncCommits() : true);
+        factory.getContainerProperties().setIdleBetweenPolls(profile.getIdleBetweenPollsMs() != null ? profile.getIdleBetweenPollsMs() : 1000);
+
+        return factory;
+    }
+
+    private ContainerProperties.AckMode resolveAckMode(String ackMode) {
+        if (ackMode == null) {
+            return ContainerProperties.AckMode.MANUAL;
+        }
+        ContainerProperties.AckMode mode = ContainerProperties.AckMode.valueOf(ackMode.trim().toUpperCase());
+        if (mode != ContainerProperties.AckMode.MANUAL && mode != ContainerProperties.AckMode.MANUAL_IMMEDIATE) {
+            throw new IllegalArgumentException("Consumer profile ack-mode must be MANUAL or MANUAL_IMMEDIATE, got: " + ackMode);
+        }
+        return mode;
+    }
+
+    private void putIfSet(Map<String, Object> configProps, String key, Object value) {
+        if (value != null) {
+            configProps.put(key, value);
+        }
+    }
+
     @Bean
     public ConsumerFactory<String, Object> avroConsumerFactory() {
-        Map<String, Object> configProps = baseConsumerConfig();
-        configProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, KafkaAvroDeserializer.class);
-        configProps.put("schema.registry.url", schemaRegistryUrl);
-        configProps.put("specific.avro.reader", specificAvroReader);
-        return new DefaultKafkaConsumerFactory<>(configProps);
+        return new DefaultKafkaConsumerFactory<>(formatConsumerConfig(KafkaEventFormat.AVRO, "avro"));
     }
 
     @Bean(name = "avroKafkaListenerContainerFactory")
@@ -106,7 +253,10 @@ public class KafkaConsumerConfig {
         ConcurrentKafkaListenerContainerFactory<String, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(avroConsumerFactory());
         factory.setCommonErrorHandler(kafkaErrorHandler);
-        factory.getContainerProperties().setAckMode(org.springframework.kafka.listener.ContainerProperties.AckMode.MANUAL);
+        factory.getContainerProperties().setConsumerRebalanceListener(rebalanceListener);
+        factory.setRecordInterceptor(new ConsumerMetricsInterceptor<>(kafkaMetricsService));
+        factory.setBatchInterceptor(new ConsumerMetricsInterceptor<>(kafkaMetricsService));
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
         
         // Concurrency and performance settings
         factory.setConcurrency(concurrency);
@@ -119,11 +269,7 @@ public class KafkaConsumerConfig {
 
     @Bean
     public ConsumerFactory<String, Object> jsonConsumerFactory() {
-        Map<String, Object> configProps = baseConsumerConfig();
-        configProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
-        configProps.put(JsonDeserializer.TRUSTED_PACKAGES, trustedPackages);
-        return new DefaultKafkaConsumerFactory<>(configProps);
+        return new DefaultKafkaConsumerFactory<>(formatConsumerConfig(KafkaEventFormat.JSON, "json"));
     }
 
     @Bean(name = "jsonKafkaListenerContainerFactory")
@@ -131,7 +277,10 @@ public class KafkaConsumerConfig {
         ConcurrentKafkaListenerContainerFactory<String, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(jsonConsumerFactory());
         factory.setCommonErrorHandler(kafkaErrorHandler);
-        factory.getContainerProperties().setAckMode(org.springframework.kafka.listener.ContainerProperties.AckMode.MANUAL);
+        factory.getContainerProperties().setConsumerRebalanceListener(rebalanceListener);
+        factory.setRecordInterceptor(new ConsumerMetricsInterceptor<>(kafkaMetricsService));
+        factory.setBatchInterceptor(new ConsumerMetricsInterceptor<>(kafkaMetricsService));
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
         
         // Concurrency and performance settings
         factory.setConcurrency(concurrency);
@@ -144,10 +293,7 @@ public class KafkaConsumerConfig {
 
     @Bean
     public ConsumerFactory<String, String> stringConsumerFactory() {
-        Map<String, Object> configProps = baseConsumerConfig();
-        configProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        return new DefaultKafkaConsumerFactory<>(configProps);
+        return new DefaultKafkaConsumerFactory<>(formatConsumerConfig(KafkaEventFormat.STRING, "string"));
     }
 
     @Bean(name = "stringKafkaListenerContainerFactory")
@@ -155,7 +301,10 @@ public class KafkaConsumerConfig {
         ConcurrentKafkaListenerContainerFactory<String, String> factory = new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(stringConsumerFactory());
         factory.setCommonErrorHandler(kafkaErrorHandler);
-        factory.getContainerProperties().setAckMode(org.springframework.kafka.listener.ContainerProperties.AckMode.MANUAL);
+        factory.getContainerProperties().setConsumerRebalanceListener(rebalanceListener);
+        factory.setRecordInterceptor(new ConsumerMetricsInterceptor<>(kafkaMetricsService));
+        factory.setBatchInterceptor(new ConsumerMetricsInterceptor<>(kafkaMetricsService));
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
         
         // Concurrency and performance settings
         factory.setConcurrency(concurrency);
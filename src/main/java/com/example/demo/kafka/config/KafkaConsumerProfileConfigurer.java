@@ -0,0 +1,103 @@
+package com.example.demo.kafka.config;
+
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.KafkaListenerConfigurer;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistrar;
+import org.springframework.kafka.config.MethodKafkaListenerEndpoint;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.messaging.handler.annotation.support.DefaultMessageHandlerMethodFactory;
+
+import com.example.demo.kafka.config.KafkaTopicsConfig.ConsumerProfile;
+import com.example.demo.kafka.consumer.util.KafkaEventConsumer;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Registers one listener endpoint per (consumer profile, format) the profile applies to, each
+ * backed by a container factory built from the profile's settings. Topics claimed by a profile
+ * are excluded from the default {@code @KafkaListener} subscription patterns in {@link KafkaEventConsumer}.
+ */
+@Slf4j
+@Configuration
+@RequiredArgsConstructor
+public class KafkaConsumerProfileConfigurer implements KafkaListenerConfigurer {
+
+    private final KafkaTopicsConfig kafkaTopicsConfig;
+    private final KafkaTopicsProvider kafkaTopicsProvider;
+    private final KafkaConsumerConfig kafkaConsumerConfig;
+    private final ObjectProvider<KafkaEventConsumer> kafkaEventConsumer;
+    private final BeanFactory beanFactory;
+
+    @Override
+    public void configureKafkaListeners(KafkaListenerEndpointRegistrar registrar) {
+        if (kafkaTopicsConfig.getProfiles().isEmpty()) {
+            return;
+        }
+        DefaultMessageHandlerMethodFactory handlerMethodFactory = new DefaultMessageHandlerMethodFactory();
+        handlerMethodFactory.setBeanFactory(beanFactory);
+        handlerMethodFactory.afterPropertiesSet();
+
+        for (Map.Entry<String, ConsumerProfile> entry : kafkaTopicsConfig.getProfiles().entrySet()) {
+            String profileName = entry.getKey();
+            for (KafkaEventFormat format : KafkaEventFormat.values()) {
+                Pattern topicPattern = kafkaTopicsProvider.getTopicPattern(format, profileName);
+                if (topicPattern == null) {
+                    continue;
+                }
+                MethodKafkaListenerEndpoint<String, Object> endpoint = new MethodKafkaListenerEndpoint<>();
+                String endpointId = listenerId(format) + "-" + profileName;
+                endpoint.setId(endpointId);
+                // Lets the shared listener method attribute processing time to this container
+                endpoint.setListenerInfo(endpointId.getBytes(StandardCharsets.UTF_8));
+                endpoint.setGroupId(kafkaConsumerConfig.getGroupId());
+                endpoint.setTopicPattern(topicPattern);
+                endpoint.setBean(kafkaEventConsumer.getObject());
+                endpoint.setMethod(listenerMethod(format));
+                endpoint.setMessageHandlerMethodFactory(handlerMethodFactory);
+                registrar.registerEndpoint(endpoint, kafkaConsumerConfig.profileContainerFactory(format, profileName, entry.getValue()));
+                log.info("Registered consumer profile listener: profile={}, format={}, pattern={}",
+                        profileName, format, topicPattern);
+            }
+        }
+    }
+
+    private String listenerId(KafkaEventFormat format) {
+        switch (format) {
+            case AVRO:
+                return KafkaEventConsumer.AVRO_LISTENER_ID;
+            case JSON:
+                return KafkaEventConsumer.JSON_LISTENER_ID;
+            default:
+                return KafkaEventConsumer.STRING_LISTENER_ID;
+        }
+    }
+
+    private Method listenerMethod(KafkaEventFormat format) {
+        String methodName;
+        switch (format) {
+            case AVRO:
+                methodName = "consumeAvro";
+                break;
+            case JSON:
+                methodName = "consumeJson";
+                break;
+            default:
+                methodName = "consumeString";
+        }
+        try {
+            return KafkaEventConsumer.class.getMethod(methodName, ConsumerRecord.class, Acknowledgment.class, Consumer.class, String.class);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("Listener method not found: " + methodName, e);
+        }
+    }
+}
@@ -12,13 +12,17 @@ import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Component;
 import org.springframework.beans.factory.annotation.Qualifier;
 
+import com.example.demo.kafka.consumer.deadline.ParkFailedException;
+import com.example.demo.kafka.consumer.rebalance.PartitionScopedState;
+
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
 @Component
-public class KafkaErrorHandler implements CommonErrorHandler {
+public class KafkaErrorHandler implements CommonErrorHandler, PartitionScopedState {
     
     private KafkaTemplate<String, Object> avroKafkaTemplate;
     private KafkaTemplate<String, Object> jsonKafkaTemplate;
@@ -51,6 +55,11 @@ public class KafkaErrorHandler implements CommonErrorHandler {
                 topic, key, messageId, thrownException.getMessage(), thrownException);
 
         try {
+            if (isParkFailure(thrownException)) {
+                // The listener sought back to the record: back off, it is delivered again on resume. Never sent to the DLT here
+                handleRetry(record, consumer, messageId);
+                return true;
+            }
             // Check if we should retry
             if (shouldRetry(messageId, thrownException)) {
                 handleRetry(record, consumer, messageId);
@@ -90,6 +99,18 @@ public class KafkaErrorHandler implements CommonErrorHandler {
         return attempts < errorConfig.getRetry().getMaxAttempts();
     }
 
+    private boolean isParkFailure(Exception exception) {
+        for (Throwable t = exception; t != null; t = t.getCause()) {
+            if (t instanceof ParkFailedException) {
+                return true;
+            }
+            if (t.getCause() == t) {
+                break;
+            }
+        }
+        return false;
+    }
+
     private boolean isNonRetryableException(Exception exception) {
         return errorConfig.getRetry().getNonRetryableExceptions().contains(exception.getClass().getName());
     }
@@ -186,6 +207,15 @@ public class KafkaErrorHandler implements CommonErrorHandler {
         }
     }
 
+    // Retry counters of revoked partitions would be stale once another consumer owns them
+    @Override
+    public void flushPartitions(Collection<TopicPartition> revoked) {
+        for (TopicPartition partition : revoked) {
+            String prefix = partition.topic() + "-" + partition.partition() + "-";
+            retryAttempts.keySet().removeIf(messageId -> messageId.startsWith(prefix));
+        }
+    }
+
     private String generateMessageId(ConsumerRecord<?, ?> record) {
         return record.topic() + "-" + record.partition() + "-" + record.offset();
     }
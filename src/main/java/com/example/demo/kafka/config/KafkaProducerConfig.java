@@ -6,11 +6,14 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.DefaultTransactionIdSuffixStrategy;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
 
 import org.springframework.kafka.support.serializer.JsonSerializer;
 
+import com.example.demo.kafka.config.ProducerProfilesConfig.ProducerProfile;
+
 import io.confluent.kafka.serializers.KafkaAvroSerializer;
 
 import java.util.HashMap;
@@ -78,24 +81,92 @@ public class KafkaProducerConfig {
         // Additional best practices
         configProps.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, 120000); // 2 minutes
         configProps.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, 60000); // 1 minute
-        // Only set transactional ID if idempotence is enabled
-        if (enableIdempotence) {
-            configProps.put(ProducerConfig.TRANSACTIONAL_ID_CONFIG, "producer-" + System.currentTimeMillis());
-        }
         
         return configProps;
     }
 
-    // Avro ProducerFactory & KafkaTemplate
-    @Bean
-    public ProducerFactory<String, Object> avroProducerFactory() {
+    private Map<String, Object> formatProducerConfig(KafkaEventFormat format) {
         Map<String, Object> configProps = baseProducerConfig();
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, KafkaAvroSerializer.class);
-        configProps.put("schema.registry.url", schemaRegistryUrl);
+        switch (format) {
+            case AVRO:
+                configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, KafkaAvroSerializer.class);
+                configProps.put("schema.registry.url", schemaRegistryUrl);
+                break;
+            case JSON:
+                configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+                break;
+            default:
+                configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        }
+        return configProps;
+    }
+
+    /**
+     * Builds the producer factory of a named profile: the format's settings with the profile's
+     * overrides on top.
+     */
+    public <V> ProducerFactory<String, V> profileProducerFactory(KafkaEventFormat format, String profileName, ProducerProfile profile) {
+        Map<String, Object> configProps = formatProducerConfig(format);
+        putIfSet(configProps, ProducerConfig.ACKS_CONFIG, profile.getAcks());
+        putIfSet(configProps, ProducerConfig.LINGER_MS_CONFIG, profile.getLingerMs());
+        putIfSet(configProps, ProducerConfig.BATCH_SIZE_CONFIG, profile.getBatchSize());
+        putIfSet(configProps, ProducerConfig.BUFFER_MEMORY_CONFIG, profile.getBufferMemory());
+        putIfSet(configProps, ProducerConfig.COMPRESSION_TYPE_CONFIG, profile.getCompressionType());
+        putIfSet(configProps, ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, profile.getMaxInFlightRequests());
+        putIfSet(configProps, ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, profile.getEnableIdempotence());
+        putIfSet(configProps, ProducerConfig.RETRIES_CONFIG, profile.getRetries());
+        putIfSet(configProps, ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG, profile.getRequestTimeoutMs());
+        putIfSet(configProps, ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, profile.getDeliveryTimeoutMs());
+
+        if (Boolean.TRUE.equals(configProps.get(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG))) {
+            String profileAcks = String.valueOf(configProps.get(ProducerConfig.ACKS_CONFIG));
+            if (!"all".equalsIgnoreCase(profileAcks) && !"-1".equals(profileAcks)) {
+                throw new IllegalArgumentException("Producer profile " + profileName + " is idempotent and needs acks=all, got: " + profileAcks);
+            }
+            if ((Integer) configProps.get(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION) > 5) {
+                throw new IllegalArgumentException("Producer profile " + profileName + " is idempotent and allows at most 5 in-flight requests");
+            }
+            // The inherited spring.kafka.producer.retries may be 0, which idempotence rejects
+            if (profile.getRetries() == null) {
+                configProps.put(ProducerConfig.RETRIES_CONFIG, Integer.MAX_VALUE);
+            }
+        }
+        configProps.put(ProducerConfig.CLIENT_ID_CONFIG, "producer-" + profileName + "-" + format.name().toLowerCase());
         return new DefaultKafkaProducerFactory<>(configProps);
     }
 
+    /**
+     * Builds a factory for exactly one transactional producer with the stable id
+     * {@code <transactionalIdPrefix>0}: the suffix is reused instead of counted up, so a
+     * restarted instance takes over the same id and fences the producer it replaces.
+     */
+    public <V> DefaultKafkaProducerFactory<String, V> transactionalProducerFactory(KafkaEventFormat format, String transactionalIdPrefix,
+                                                                                   int transactionTimeoutMs) {
+        Map<String, Object> configProps = formatProducerConfig(format);
+        configProps.put(ProducerConfig.ACKS_CONFIG, "all");
+        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        configProps.put(ProducerConfig.RETRIES_CONFIG, Integer.MAX_VALUE);
+        configProps.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, Math.min(maxInFlightRequests, 5));
+        configProps.put(ProducerConfig.TRANSACTION_TIMEOUT_CONFIG, transactionTimeoutMs);
+        DefaultKafkaProducerFactory<String, V> factory = new DefaultKafkaProducerFactory<>(configProps);
+        factory.setTransactionIdPrefix(transactionalIdPrefix);
+        factory.setTransactionIdSuffixStrategy(new DefaultTransactionIdSuffixStrategy(1));
+        return factory;
+    }
+
+    private void putIfSet(Map<String, Object> configProps, String key, Object value) {
+        if (value != null) {
+            configProps.put(key, value);
+        }
+    }
+
+    // Avro ProducerFactory & KafkaTemplate
+    @Bean
+    public ProducerFactory<String, Object> avroProducerFactory() {
+        return new DefaultKafkaProducerFactory<>(formatProducerConfig(KafkaEventFormat.AVRO));
+    }
+
     @Bean(name = "avroKafkaTemplate")
     public KafkaTemplate<String, Object> avroKafkaTemplate() {
         KafkaTemplate<String, Object> template = new KafkaTemplate<>(avroProducerFactory());
@@ -107,10 +178,7 @@ public class KafkaProducerConfig {
     // JSON ProducerFactory & KafkaTemplate
     @Bean
     public ProducerFactory<String, Object> jsonProducerFactory() {
-        Map<String, Object> configProps = baseProducerConfig();
-        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
-        return new DefaultKafkaProducerFactory<>(configProps);
+        return new DefaultKafkaProducerFactory<>(formatProducerConfig(KafkaEventFormat.JSON));
     }
 
     @Bean(name = "jsonKafkaTemplate")
@@ -123,10 +191,7 @@ public class KafkaProducerConfig {
     // String ProducerFactory & KafkaTemplate
     @Bean
     public ProducerFactory<String, String> stringProducerFactory() {
-        Map<String, Object> configProps = baseProducerConfig();
-        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        return new DefaultKafkaProducerFactory<>(configProps);
+        return new DefaultKafkaProducerFactory<>(formatProducerConfig(KafkaEventFormat.STRING));
     }
 
     @Bean(name = "stringKafkaTemplate")
@@ -5,7 +5,9 @@ import org.springframework.stereotype.Component;
 
 import lombok.Data;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Data
 @Component
@@ -14,6 +16,9 @@ public class KafkaTopicsConfig {
     
     private ProducerTopics producer = new ProducerTopics();
     private ConsumerTopics consumer = new ConsumerTopics();
+
+    // Consumer tuning profiles, keyed by profile name; the first profile matching a topic wins
+    private Map<String, ConsumerProfile> profiles = new LinkedHashMap<>();
     
     // Legacy support (deprecated)
     private List<String> entities;
@@ -33,4 +38,32 @@ public class KafkaTopicsConfig {
         private List<String> json;
         private List<String> string;
     }
-} 
\ No newline at end of file
+    
+    @Data
+    public static class ConsumerProfile {
+        // Topic group selection (empty = any)
+        private List<String> entities = List.of();
+        private List<String> operations = List.of();
+        private List<KafkaEventFormat> formats = List.of();
+
+        // Fetch and poll settings (null = inherit from spring.kafka.consumer)
+        private Integer fetchMinBytes;
+        private Integer fetchMaxWaitMs;
+        private Integer maxPartitionFetchBytes;
+        private Integer maxPollRecords;
+        private Integer maxPollIntervalMs;
+
+        // Container settings (null = inherit the listener defaults)
+        private Integer concurrency;
+        private String ackMode;             // MANUAL or MANUAL_IMMEDIATE; listeners acknowledge explicitly
+        private Boolean syncCommits;
+        private Long pollTimeoutMs;
+        private Long idleBetweenPollsMs;
+
+        public boolean matches(String entity, String operation, KafkaEventFormat format) {
+            return (entities.isEmpty() || entities.contains(entity))
+                    && (operations.isEmpty() || operations.contains(operation))
+                    && (formats.isEmpty() || formats.contains(format));
+        }
+    }
+}
@@ -1,26 +1,46 @@
 package com.example.demo.kafka.config;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Component;
 
+import com.example.demo.kafka.config.KafkaTopicsConfig.ConsumerProfile;
+
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
+@RequiredArgsConstructor
 @Component("kafkaTopicsProvider")
 public class KafkaTopicsProvider {
 
+    private final KafkaTopicsConfig kafkaTopicsConfig;
+    private final DeadlineConfig deadlineConfig;
+    private final Environment environment;
+
+    // Entity lists are re-read on refresh(); "*" accepts any entity found by the topic pattern
     @Value("${kafka.topics.consumer.avro:}")
-    private String avroTopics;
+    private volatile String avroTopics;
 
     @Value("${kafka.topics.consumer.json:}")
-    private String jsonTopics;
+    private volatile String jsonTopics;
 
     @Value("${kafka.topics.consumer.string:}")
-    private String stringTopics;
+    private volatile String stringTopics;
+
+    private static final String ANY_ENTITY = "*";
+    private static final String ENTITY_REGEX = "[^-]+";
+    private static final List<String> OPERATIONS = List.of("create", "update", "delete");
 
     private static final List<String> AVRO_EVENT_SUFFIXES = Arrays.asList(
         "-create-avro", 
@@ -47,7 +67,7 @@ public class KafkaTopicsProvider {
         
         String[] entityNames = Arrays.stream(entities.split(","))
                 .map(String::trim)
-                .filter(s -> !s.isEmpty())
+                .filter(s -> !s.isEmpty() && !ANY_ENTITY.equals(s))
                 .toArray(String[]::new);
         
         List<String> allTopics = Arrays.stream(entityNames)
@@ -60,21 +80,208 @@ public class KafkaTopicsProvider {
         return topics;
     }
 
+    /**
+     * Topics of the given format assigned to a consumer profile, or to the default listener
+     * when {@code profileName} is null (topics not claimed by any profile).
+     */
+    public String[] getTopics(KafkaEventFormat format, String profileName) {
+        String[] topics = Arrays.stream(getAllTopics(format))
+                .filter(topic -> Objects.equals(resolveProfile(topic, format), profileName))
+                .toArray(String[]::new);
+        log.info("Entry @class KafkaTopicsProvider @method getTopics format: {} profile: {} topics: {}",
+                format, profileName, Arrays.toString(topics));
+        return topics;
+    }
+
+    /**
+     * @return name of the first profile matching the topic, or null if none does
+     */
+    public String resolveProfile(String topic, KafkaEventFormat format) {
+        if (topic.endsWith(deadlineConfig.getRetryTopicSuffix())) {
+            topic = topic.substring(0, topic.length() - deadlineConfig.getRetryTopicSuffix().length());
+        }
+        int firstDash = topic.indexOf('-');
+        int lastDash = topic.lastIndexOf('-');
+        if (firstDash <= 0 || lastDash <= firstDash) {
+            return null;
+        }
+        String entity = topic.substring(0, firstDash);
+        String operation = topic.substring(firstDash + 1, lastDash);
+        for (Map.Entry<String, ConsumerProfile> profile : kafkaTopicsConfig.getProfiles().entrySet()) {
+            if (profile.getValue().matches(entity, operation, format)) {
+                return profile.getKey();
+            }
+        }
+        return null;
+    }
+
+    private String[] getAllTopics(KafkaEventFormat format) {
+        switch (format) {
+            case AVRO:
+                return generateTopicsFromEntities(avroTopics, AVRO_EVENT_SUFFIXES);
+            case JSON:
+                return generateTopicsFromEntities(jsonTopics, JSON_EVENT_SUFFIXES);
+            case STRING:
+                return generateTopicsFromEntities(stringTopics, STRING_EVENT_SUFFIXES);
+            default:
+                return new String[0];
+        }
+    }
+
+    /**
+     * Subscription pattern for a listener: every {@code <entity>-<operation>-<format>} topic claimed
+     * by the given profile (or by no profile when {@code profileName} is null). Entities are not
+     * part of the pattern unless a profile names them, so topics of new entities are picked up on
+     * the next metadata refresh ({@code metadata.max.age.ms}) without restarting the listener.
+     * The retry topics records are parked to ({@code <topic>-retry}) are matched as well.
+     */
+    public Pattern getTopicPattern(KafkaEventFormat format, String profileName) {
+        List<String> earlierProfiles = new ArrayList<>();
+        String target = null;
+        for (Map.Entry<String, ConsumerProfile> profile : kafkaTopicsConfig.getProfiles().entrySet()) {
+            String profileRegex = profileRegex(profile.getValue(), format);
+            if (profile.getKey().equals(profileName)) {
+                target = profileRegex;
+                break;
+            }
+            if (profileRegex != null) {
+                earlierProfiles.add(profileRegex);
+            }
+        }
+        if (profileName == null) {
+            target = topicRegex(ENTITY_REGEX, OPERATIONS, format);
+        }
+        if (target == null) {
+            return null;
+        }
+        // First matching profile wins: exclude topics claimed by profiles declared before this one
+        String regex = earlierProfiles.isEmpty()
+                ? "^" + target + "$"
+                : "^(?!(?:" + String.join("|", earlierProfiles) + ")$)" + target + "$";
+        log.info("Entry @class KafkaTopicsProvider @method getTopicPattern format: {} profile: {} pattern: {}",
+                format, profileName, regex);
+        return Pattern.compile(regex);
+    }
+
+    public Pattern getAvroTopicPattern() {
+        return getTopicPattern(KafkaEventFormat.AVRO, null);
+    }
+
+    public Pattern getJsonTopicPattern() {
+        return getTopicPattern(KafkaEventFormat.JSON, null);
+    }
+
+    public Pattern getStringTopicPattern() {
+        return getTopicPattern(KafkaEventFormat.STRING, null);
+    }
+
+    private String profileRegex(ConsumerProfile profile, KafkaEventFormat format) {
+        if (!profile.getFormats().isEmpty() && !profile.getFormats().contains(format)) {
+            return null;
+        }
+        String entities = profile.getEntities().isEmpty()
+                ? ENTITY_REGEX
+                : profile.getEntities().stream().map(Pattern::quote).collect(Collectors.joining("|"));
+        List<String> operations = profile.getOperations().isEmpty() ? OPERATIONS : profile.getOperations();
+        return topicRegex(entities, operations, format);
+    }
+
+    private String topicRegex(String entities, List<String> operations, KafkaEventFormat format) {
+        return "(?:" + entities + ")-(?:" + String.join("|", operations) + ")-" + format.name().toLowerCase()
+                + "(?:" + Pattern.quote(deadlineConfig.getRetryTopicSuffix()) + ")?";
+    }
+
+    /**
+     * Whether records of the entity should be processed for this format; partitions of topics
+     * matched by the subscription pattern for entities that are not enabled are held, unacknowledged,
+     * by {@code DisabledEntityGate}.
+     */
+    public boolean isEntityEnabled(KafkaEventFormat format, String entity) {
+        Set<String> entities = parseEntities(entitiesFor(format));
+        return entities.contains(ANY_ENTITY) || entities.contains(entity);
+    }
+
+    /**
+     * Re-reads the consumer entity lists from the environment, so entities can be enabled
+     * without restarting the listener containers.
+     */
+    public Map<String, Object> refresh() {
+        avroTopics = environment.getProperty("kafka.topics.consumer.avro", "");
+        jsonTopics = environment.getProperty("kafka.topics.consumer.json", "");
+        stringTopics = environment.getProperty("kafka.topics.consumer.string", "");
+        log.info("Entry @class KafkaTopicsProvider @method refresh avro: {} json: {} string: {}", avroTopics, jsonTopics, stringTopics);
+        return getEnabledEntities();
+    }
+
+    /**
+     * Replaces the enabled entities of a format on this instance only; the setting is neither
+     * persisted nor shared with the other members of the consumer group, and a restart returns
+     * to the configured lists. Apply it on every instance (or change the configuration) to
+     * enable an entity group-wide.
+     */
+    public Map<String, Object> setEntities(KafkaEventFormat format, List<String> entities) {
+        String value = String.join(",", entities);
+        switch (format) {
+            case AVRO:
+                avroTopics = value;
+                break;
+            case JSON:
+                jsonTopics = value;
+                break;
+            case STRING:
+                stringTopics = value;
+                break;
+        }
+        log.info("Entry @class KafkaTopicsProvider @method setEntities format: {} entities: {}", format, value);
+        return getEnabledEntities();
+    }
+
+    public Map<String, Object> getEnabledEntities() {
+        Map<String, Object> enabled = new HashMap<>();
+        for (KafkaEventFormat format : KafkaEventFormat.values()) {
+            enabled.put(format.name().toLowerCase(), parseEntities(entitiesFor(format)));
+        }
+        return enabled;
+    }
+
+    private String entitiesFor(KafkaEventFormat format) {
+        switch (format) {
+            case AVRO:
+                return avroTopics;
+            case JSON:
+                return jsonTopics;
+            case STRING:
+                return stringTopics;
+            default:
+                return "";
+        }
+    }
+
+    private Set<String> parseEntities(String entities) {
+        if (entities == null || entities.isBlank()) {
+            return Set.of();
+        }
+        return Arrays.stream(entities.split(","))
+                .map(String::trim)
+                .filter(e -> !e.isEmpty())
+                .collect(Collectors.toSet());
+    }
+
     public String[] getAvroTopics() {
-        String[] topics = generateTopicsFromEntities(avroTopics, AVRO_EVENT_SUFFIXES);
+        String[] topics = getTopics(KafkaEventFormat.AVRO, null);
         log.info("Entry @class KafkaTopicsProvider @method getAvroTopics topics: {}", Arrays.toString(topics));
         return topics;
     }
 
     public String[] getJsonTopics() {
-        String[] topics = generateTopicsFromEntities(jsonTopics, JSON_EVENT_SUFFIXES);
+        String[] topics = getTopics(KafkaEventFormat.JSON, null);
         log.info("Entry @class KafkaTopicsProvider @method getJsonTopics topics: {}", Arrays.toString(topics));
         return topics;
     }
 
     public String[] getStringTopics() {
-        String[] topics = generateTopicsFromEntities(stringTopics, STRING_EVENT_SUFFIXES);
+        String[] topics = getTopics(KafkaEventFormat.STRING, null);
         log.info("Entry @class KafkaTopicsProvider @method getStringTopics topics: {}", Arrays.toString(topics));
         return topics;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,37 @@
+package com.example.demo.kafka.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "kafka.producer.circuit-breaker")
+public class ProducerCircuitBreakerConfig {
+
+    private boolean enabled = true;
+
+    // Sliding window, kept per topic
+    private long windowMs = 60000;               // Span over which the failure rate is computed
+    private int windowBuckets = 12;              // Window granularity; the oldest bucket is dropped as time moves on
+    private double failureRateThreshold = 0.5;   // Open when failures / calls in the window reach this
+    private int minimumCalls = 20;               // Calls the window needs before the rate is trusted
+
+    // Recovery
+    private long openMs = 30000;                 // Time spent open before probe sends are let through
+    private int halfOpenProbes = 3;              // Successful probes needed to close; one failed probe reopens
+
+    private Retry retry = new Retry();
+
+    // Application-level re-sends of unkeyed records. Keyed records are left to the producer's own
+    // retries within delivery.timeout.ms: a re-send from here would reorder them against later
+    // records of the same key.
+    @Data
+    public static class Retry {
+        private int maxAttempts = 3;             // Including the first send; only transient errors are retried
+        private long initialBackoffMs = 100;
+        private double multiplier = 2.0;
+        private long maxBackoffMs = 5000;
+        private double jitter = 0.5;             // Fraction of the backoff that is randomized
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.demo.kafka.config;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "kafka.producer.durability")
+public class ProducerDurabilityConfig {
+
+    private String defaultProfile;                                   // Profile of events no tier matches (null = default templates)
+    private Map<String, DurabilityTier> tiers = new LinkedHashMap<>(); // First matching tier wins
+
+    @Data
+    public static class DurabilityTier {
+        private String profile;                         // Producer profile from kafka.producer.profiles
+
+        // Event selection (empty = any)
+        private List<String> entities = List.of();
+        private List<String> eventTypes = List.of();
+        private List<KafkaEventFormat> formats = List.of();
+
+        public boolean matches(String entity, String eventType, KafkaEventFormat format) {
+            return (entities.isEmpty() || entities.contains(entity))
+                    && (eventTypes.isEmpty() || eventTypes.contains(eventType))
+                    && (formats.isEmpty() || formats.contains(format));
+        }
+    }
+}
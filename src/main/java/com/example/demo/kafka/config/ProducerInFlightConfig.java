@@ -0,0 +1,15 @@
+package com.example.demo.kafka.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "kafka.producer.in-flight")
+public class ProducerInFlightConfig {
+
+    private int maxInFlight = 10000;             // Sends handed to the producer and not yet acknowledged
+    private long acquireTimeoutMs = 5000;        // How long a single send waits for a free slot before it fails; batch sends queue instead
+    private int callbackThreads = 2;             // Threads running completion logging, metrics and caller callbacks
+}
@@ -0,0 +1,31 @@
+package com.example.demo.kafka.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "kafka.producer")
+public class ProducerProfilesConfig {
+
+    private Map<String, ProducerProfile> profiles = new LinkedHashMap<>();   // Named producer tunings, one template per profile and format
+
+    @Data
+    public static class ProducerProfile {
+        // Producer settings (null = inherit from spring.kafka.producer)
+        private String acks;
+        private Integer lingerMs;
+        private Integer batchSize;
+        private Long bufferMemory;
+        private String compressionType;         // none, gzip, snappy, lz4 or zstd
+        private Integer maxInFlightRequests;    // At most 5 when idempotent
+        private Boolean enableIdempotence;      // Requires acks=all; retries default to unlimited
+        private Integer retries;
+        private Integer requestTimeoutMs;
+        private Integer deliveryTimeoutMs;
+    }
+}
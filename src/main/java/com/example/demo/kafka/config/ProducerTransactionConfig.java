@@ -0,0 +1,17 @@
+package com.example.demo.kafka.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "kafka.producer.transactions")
+public class ProducerTransactionConfig {
+
+    private boolean enabled = true;
+    private String idPrefix = "kafka-demo";      // transactional.id = <id-prefix>-<instance-id>-<format>-<thread>-0
+    private String instanceId;                   // Stable per-instance identity (null = HOSTNAME, then the host name)
+    private int producerThreads = 4;             // Transactional producers per format; one thread owns each
+    private int transactionTimeoutMs = 60000;    // Broker aborts transactions left open longer than this
+}
@@ -0,0 +1,17 @@
+package com.example.demo.kafka.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "kafka.consumer.replay")
+public class ReplayConfig {
+
+    private String groupSuffix = "replay";       // Replay group id = <consumer group>-<suffix>-<replay id>
+    private int maxParallelism = 8;              // Partitions replayed at the same time, across all replays
+    private int recordsPerSecond = 200;          // Default rate limit per replay, shared by its partitions
+    private long pollTimeoutMs = 1000;
+    private int retainedReplays = 20;            // Finished replays kept for progress reporting
+}
@@ -0,0 +1,201 @@
+package com.example.demo.kafka.consumer.backpressure;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.kafka.config.BackpressureConfig;
+import com.example.demo.kafka.config.BackpressureConfig.Scope;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Pauses consumption while the Hikari pool is saturated, so consumer threads do not block on
+ * connection acquisition past {@code max.poll.interval.ms} and trigger rebalances. Consumption
+ * is paused at the high watermark and resumed at the low watermark; with scope ENTITY only the
+ * partitions of the entity type holding the most in-flight records are paused.
+ */
+@Slf4j
+@Component
+public class JdbcPoolBackpressureController {
+
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+    private final BackpressureConfig config;
+    private final HikariDataSource hikariDataSource;
+
+    private final Map<String, AtomicInteger> inFlightPerEntity = new ConcurrentHashMap<>();
+    private final Set<String> pausedEntities = ConcurrentHashMap.newKeySet();
+    // Exactly what this controller paused, so resuming leaves pauses requested by others
+    // (e.g. DisabledEntityGate) in place
+    private final Map<MessageListenerContainer, Set<TopicPartition>> pausedPartitions = new ConcurrentHashMap<>();
+    private final Set<MessageListenerContainer> pausedContainers = ConcurrentHashMap.newKeySet();
+    private volatile boolean paused = false;
+    private volatile long pausedSince = 0;
+
+    private final AtomicLong pauseEvents = new AtomicLong(0);
+    private final AtomicLong resumeEvents = new AtomicLong(0);
+    private final AtomicLong totalPausedMs = new AtomicLong(0);
+    private volatile int lastActive = 0;
+    private volatile int lastPending = 0;
+    private volatile int lastMax = 0;
+
+    public JdbcPoolBackpressureController(KafkaListenerEndpointRegistry listenerRegistry, BackpressureConfig config,
+                                          DataSource dataSource) {
+        this.listenerRegistry = listenerRegistry;
+        this.config = config;
+        this.hikariDataSource = dataSource instanceof HikariDataSource hikari ? hikari : null;
+        if (hikariDataSource == null) {
+            log.warn("DataSource is not a HikariDataSource; JDBC pool backpressure is disabled");
+        }
+    }
+
+    /**
+     * Marks a record of the entity type as holding (or about to request) a connection.
+     */
+    public void enter(String entityType) {
+        inFlightPerEntity.computeIfAbsent(entityType, k -> new AtomicInteger()).incrementAndGet();
+    }
+
+    public void exit(String entityType) {
+        AtomicInteger inFlight = inFlightPerEntity.get(entityType);
+        if (inFlight != null) {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${kafka.consumer.backpressure.check-interval-ms:500}")
+    public void evaluate() {
+        if (!config.isEnabled() || hikariDataSource == null) {
+            return;
+        }
+        HikariPoolMXBean pool = hikariDataSource.getHikariPoolMXBean();
+        if (pool == null) {
+            return; // Pool not started yet
+        }
+        lastActive = pool.getActiveConnections();
+        lastPending = pool.getThreadsAwaitingConnection();
+        lastMax = hikariDataSource.getMaximumPoolSize();
+        double usage = lastMax > 0 ? (double) lastActive / lastMax : 0;
+
+        if (!paused && (usage >= config.getHighWatermark() || lastPending >= config.getPendingThreshold())) {
+            pause(usage);
+        } else if (paused && usage <= config.getLowWatermark() && lastPending == 0) {
+            resume(usage);
+        } else if (paused && config.getScope() == Scope.ENTITY) {
+            // Partitions of the paused entities may have been (re)assigned since the pause
+            pauseEntityPartitions();
+        }
+    }
+
+    private void pause(double usage) {
+        if (config.getScope() == Scope.ENTITY) {
+            String busiest = inFlightPerEntity.entrySet().stream()
+                    .max(Comparator.comparingInt(e -> e.getValue().get()))
+                    .filter(e -> e.getValue().get() > 0)
+                    .map(Map.Entry::getKey)
+                    .orElse(null);
+            if (busiest == null) {
+                return;
+            }
+            pausedEntities.add(busiest);
+            pauseEntityPartitions();
+        } else {
+            for (MessageListenerContainer container : listenerRegistry.getListenerContainers()) {
+                if (!container.isPauseRequested()) {
+                    container.pause();
+                    pausedContainers.add(container);
+                }
+            }
+        }
+        paused = true;
+        pausedSince = System.currentTimeMillis();
+        pauseEvents.incrementAndGet();
+        log.warn("JDBC pool saturated (active={}/{}, pending={}, usage={}): pausing consumption of {}",
+                lastActive, lastMax, lastPending, String.format("%.2f", usage),
+                config.getScope() == Scope.ENTITY ? pausedEntities : "all listeners");
+    }
+
+    private void resume(double usage) {
+        pausedPartitions.forEach((container, partitions) -> partitions.forEach(container::resumePartition));
+        pausedPartitions.clear();
+        pausedEntities.clear();
+        pausedContainers.forEach(MessageListenerContainer::resume);
+        pausedContainers.clear();
+        long pausedMs = System.currentTimeMillis() - pausedSince;
+        totalPausedMs.addAndGet(pausedMs);
+        paused = false;
+        resumeEvents.incrementAndGet();
+        log.info("JDBC pool recovered (active={}/{}, pending={}, usage={}): resuming consumption after {} ms",
+                lastActive, lastMax, lastPending, String.format("%.2f", usage), pausedMs);
+    }
+
+    // Partitions already paused, by this controller or anyone else, are left alone and not tracked
+    private void pauseEntityPartitions() {
+        forEachPartition(pausedEntities, (container, tp) -> {
+            if (!container.isPartitionPauseRequested(tp)) {
+                container.pausePartition(tp);
+                pausedPartitions.computeIfAbsent(container, k -> ConcurrentHashMap.newKeySet()).add(tp);
+            }
+        });
+    }
+
+    private void forEachPartition(Set<String> entityTypes, PartitionAction action) {
+        for (MessageListenerContainer container : listenerRegistry.getListenerContainers()) {
+            if (container.getAssignedPartitions() == null) {
+                continue;
+            }
+            for (TopicPartition tp : container.getAssignedPartitions()) {
+                if (entityTypes.contains(entityTypeOf(tp.topic()))) {
+                    action.apply(container, tp);
+                }
+            }
+        }
+    }
+
+    private String entityTypeOf(String topic) {
+        int dashIdx = topic.indexOf('-');
+        return dashIdx > 0 ? topic.substring(0, dashIdx) : topic;
+    }
+
+    public long getPauseEvents() {
+        return pauseEvents.get();
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("enabled", config.isEnabled() && hikariDataSource != null);
+        status.put("scope", config.getScope());
+        status.put("paused", paused);
+        status.put("paused_entities", new HashSet<>(pausedEntities));
+        status.put("pause_events", pauseEvents.get());
+        status.put("resume_events", resumeEvents.get());
+        status.put("total_paused_ms", totalPausedMs.get() + (paused ? System.currentTimeMillis() - pausedSince : 0));
+        status.put("pool_active", lastActive);
+        status.put("pool_pending", lastPending);
+        status.put("pool_max", lastMax);
+        Map<String, Integer> inFlight = new HashMap<>();
+        inFlightPerEntity.forEach((entity, count) -> inFlight.put(entity, count.get()));
+        status.put("in_flight_per_entity", inFlight);
+        return status;
+    }
+
+    @FunctionalInterface
+    private interface PartitionAction {
+        void apply(MessageListenerContainer container, TopicPartition partition);
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.demo.kafka.consumer.catchup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.kafka.config.CatchUpConfig;
+import com.example.demo.kafka.consumer.lag.ConsumerLagMonitor;
+import com.example.demo.kafka.consumer.lag.ContainerRestartCoordinator;
+import com.example.demo.kafka.consumer.lag.ConsumerLagMonitor.LagSnapshot;
+import com.example.demo.kafka.consumer.store.ProcessingRecordStore;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Switches listener containers into catch-up mode when their lag exceeds
+ * {@code kafka.consumer.catch-up.enter-lag} and back to live mode below {@code exit-lag}.
+ * While any container is catching up, its consumers are re-created with large fetch and poll
+ * settings, processing records are deduped and persisted in batches through
+ * {@link ProcessingRecordStore}, and per-message logging is sampled. Checks where the lag is
+ * unknown are skipped, and containers are only bounced through {@link ContainerRestartCoordinator}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CatchUpModeController {
+
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+    private final ConsumerLagMonitor lagMonitor;
+    private final ContainerRestartCoordinator restartCoordinator;
+    private final ProcessingRecordStore recordStore;
+    private final CatchUpConfig config;
+
+    private final Map<String, ListenerState> states = new ConcurrentHashMap<>();
+    private final AtomicLong logCounter = new AtomicLong(0);
+    private final AtomicLong modeChanges = new AtomicLong(0);
+    private final AtomicLong totalCatchUpMs = new AtomicLong(0);
+
+    public boolean isCatchingUp() {
+        return recordStore.isBatching();
+    }
+
+    /**
+     * @return true if the current record should be logged at INFO; one in
+     *         {@code log-sample-rate} while catching up, every record otherwise
+     */
+    public boolean shouldLogRecord() {
+        if (!isCatchingUp()) {
+            return true;
+        }
+        int rate = Math.max(1, config.getLogSampleRate());
+        return logCounter.incrementAndGet() % rate == 0;
+    }
+
+    @Scheduled(fixedDelayString = "${kafka.consumer.catch-up.check-interval-ms:15000}")
+    public void evaluate() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        for (MessageListenerContainer container : listenerRegistry.getListenerContainers()) {
+            if (container.isRunning()) {
+                evaluate(container);
+            }
+        }
+        updateBatching();
+    }
+
+    private void updateBatching() {
+        recordStore.setBatching(states.values().stream().anyMatch(s -> s.catchingUp));
+    }
+
+    private void evaluate(MessageListenerContainer container) {
+        ListenerState state = states.computeIfAbsent(container.getListenerId(), k -> new ListenerState());
+        if (restartCoordinator.isRestarting(container.getListenerId())) {
+            return;
+        }
+        LagSnapshot lag = lagMonitor.snapshot(container);
+        if (!lag.isKnown()) {
+            return;
+        }
+        state.lastLag = lag.totalLag();
+        if (!state.catchingUp && lag.totalLag() > config.getEnterLag()) {
+            switchMode(container, state, true);
+        } else if (state.catchingUp && lag.totalLag() < config.getExitLag()) {
+            switchMode(container, state, false);
+        }
+    }
+
+    private void switchMode(MessageListenerContainer container, ListenerState state, boolean catchUp) {
+        String listenerId = container.getListenerId();
+        if (!restartCoordinator.tryAcquire(listenerId)) {
+            return;
+        }
+        log.info("Listener {} {} catch-up mode (lag={})", listenerId, catchUp ? "entering" : "leaving", state.lastLag);
+        // Consumer properties are only read when the consumers are created, so the container is bounced
+        container.stop(() -> {
+            try {
+                Properties properties = container.getContainerProperties().getKafkaConsumerProperties();
+                if (catchUp) {
+                    state.liveProperties = properties;
+                    container.getContainerProperties().setKafkaConsumerProperties(catchUpProperties(properties));
+                } else if (state.liveProperties != null) {
+                    container.getContainerProperties().setKafkaConsumerProperties(state.liveProperties);
+                }
+                container.start();
+            } catch (Exception e) {
+                log.error("Failed to switch catch-up mode for listener={}", listenerId, e);
+            } finally {
+                long now = System.currentTimeMillis();
+                if (catchUp) {
+                    state.catchUpStartTime = now;
+                } else {
+                    state.lastCatchUpDurationMs = now - state.catchUpStartTime;
+                    totalCatchUpMs.addAndGet(state.lastCatchUpDurationMs);
+                    state.catchUpStartTime = 0;
+                }
+                state.catchingUp = catchUp;
+                state.modeChanges.incrementAndGet();
+                modeChanges.incrementAndGet();
+                restartCoordinator.release(listenerId);
+                updateBatching();
+            }
+        });
+    }
+
+    private Properties catchUpProperties(Properties liveProperties) {
+        Properties properties = new Properties();
+        if (liveProperties != null) {
+            properties.putAll(liveProperties);
+        }
+        properties.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, String.valueOf(config.getMaxPollRecords()));
+        properties.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, String.valueOf(config.getFetchMinBytes()));
+        properties.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, String.valueOf(config.getFetchMaxWaitMs()));
+        properties.put(ConsumerConfig.MAX_PARTITION_FETCH_BYTES_CONFIG, String.valueOf(config.getMaxPartitionFetchBytes()));
+        return properties;
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("enabled", config.isEnabled());
+        status.put("catching_up", isCatchingUp());
+        status.put("mode_changes", modeChanges.get());
+        status.put("total_catch_up_ms", totalCatchUpMs.get());
+        status.put("record_store", recordStore.getStatistics());
+        long now = System.currentTimeMillis();
+        states.forEach((listenerId, state) -> {
+            Map<String, Object> listener = new HashMap<>();
+            listener.put("mode", state.catchingUp ? "CATCH_UP" : "LIVE");
+            listener.put("last_lag", state.lastLag);
+            listener.put("mode_changes", state.modeChanges.get());
+            listener.put("current_catch_up_ms", state.catchingUp ? now - state.catchUpStartTime : 0);
+            listener.put("last_catch_up_duration_ms", state.lastCatchUpDurationMs);
+            status.put(listenerId, listener);
+        });
+        return status;
+    }
+
+    private static class ListenerState {
+        private final AtomicLong modeChanges = new AtomicLong(0);
+        private volatile boolean catchingUp = false;
+        private volatile Properties liveProperties;
+        private volatile long lastLag = 0;
+        private volatile long catchUpStartTime = 0;
+        private volatile long lastCatchUpDurationMs = 0;
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.demo.kafka.consumer.concurrency;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.kafka.config.ElasticConcurrencyConfig;
+import com.example.demo.kafka.consumer.lag.ConsumerLagMonitor;
+import com.example.demo.kafka.consumer.lag.ContainerRestartCoordinator;
+import com.example.demo.kafka.consumer.lag.ConsumerLagMonitor.LagSnapshot;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Grows or shrinks the number of consumer threads of each listener container at runtime, based
+ * on its lag and average processing time. A change only happens after the same decision held
+ * for several consecutive checks and the cooldown since the previous change has elapsed, so a
+ * noisy lag signal does not cause a rebalance on every check. Checks where the lag is unknown
+ * are skipped, and containers are only bounced through {@link ContainerRestartCoordinator}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ElasticConcurrencyController {
+
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+    private final ConsumerLagMonitor lagMonitor;
+    private final ContainerRestartCoordinator restartCoordinator;
+    private final ElasticConcurrencyConfig config;
+
+    private final Map<String, ListenerState> states = new ConcurrentHashMap<>();
+
+    public void recordProcessingTime(String listenerId, long durationNanos) {
+        ListenerState state = states.computeIfAbsent(listenerId, k -> new ListenerState());
+        state.processingNanos.addAndGet(durationNanos);
+        state.processedCount.incrementAndGet();
+    }
+
+    @Scheduled(fixedDelayString = "${kafka.consumer.elastic.check-interval-ms:30000}")
+    public void evaluate() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        for (MessageListenerContainer container : listenerRegistry.getListenerContainers()) {
+            if (container instanceof ConcurrentMessageListenerContainer<?, ?> concurrent && container.isRunning()) {
+                evaluate(concurrent);
+            }
+        }
+    }
+
+    private void evaluate(ConcurrentMessageListenerContainer<?, ?> container) {
+        String listenerId = container.getListenerId();
+        ListenerState state = states.computeIfAbsent(listenerId, k -> new ListenerState());
+        if (restartCoordinator.isRestarting(listenerId)) {
+            return;
+        }
+
+        LagSnapshot lag = lagMonitor.snapshot(container);
+        if (!lag.isKnown()) {
+            // Keep the pending decision as it was; a failed lookup is not evidence of low lag
+            log.debug("Lag of listener={} unknown, skipping concurrency check", listenerId);
+            return;
+        }
+        int current = container.getConcurrency();
+        int maxAllowed = Math.max(config.getMinConcurrency(),
+                Math.min(config.getMaxConcurrency(), lag.partitionCount() > 0 ? lag.partitionCount() : current));
+        double avgProcessingMs = state.drainAverageMs();
+        double drainSeconds = avgProcessingMs > 0 ? lag.totalLag() * avgProcessingMs / current / 1000 : 0;
+
+        int desired = current;
+        if (lag.totalLag() > config.getScaleUpLag() || drainSeconds > config.getTargetDrainSeconds()) {
+            desired = Math.min(current + 1, maxAllowed);
+        } else if (lag.totalLag() < config.getScaleDownLag()) {
+            desired = Math.max(current - 1, config.getMinConcurrency());
+        }
+
+        state.lastLag = lag.totalLag();
+        state.lastAvgProcessingMs = avgProcessingMs;
+        state.partitionCount = lag.partitionCount();
+        state.target = desired;
+
+        if (desired == current) {
+            state.pendingDirection = 0;
+            state.pendingChecks = 0;
+            return;
+        }
+        int direction = Integer.signum(desired - current);
+        if (direction != state.pendingDirection) {
+            state.pendingDirection = direction;
+            state.pendingChecks = 0;
+        }
+        state.pendingChecks++;
+
+        boolean stable = state.pendingChecks >= config.getStableChecks();
+        boolean cooledDown = System.currentTimeMillis() - state.lastAdjustmentTime >= config.getCooldownMs();
+        if (stable && cooledDown) {
+            resize(container, state, current, desired);
+        } else {
+            log.debug("Concurrency change pending for listener={}: current={}, target={}, checks={}/{}, cooledDown={}",
+                    listenerId, current, desired, state.pendingChecks, config.getStableChecks(), cooledDown);
+        }
+    }
+
+    private void resize(ConcurrentMessageListenerContainer<?, ?> container, ListenerState state, int current, int desired) {
+        String listenerId = container.getListenerId();
+        if (!restartCoordinator.tryAcquire(listenerId)) {
+            return;
+        }
+        log.info("Adjusting concurrency for listener={}: {} -> {} (lag={}, avgProcessingMs={})",
+                listenerId, current, desired, state.lastLag, String.format("%.2f", state.lastAvgProcessingMs));
+        // Child consumers are only re-created on start, so the container is bounced on its own;
+        // the other listeners and the application keep running.
+        container.stop(() -> {
+            try {
+                container.setConcurrency(desired);
+                container.start();
+                state.adjustments.incrementAndGet();
+            } catch (Exception e) {
+                log.error("Failed to apply concurrency {} to listener={}", desired, listenerId, e);
+            } finally {
+                state.lastAdjustmentTime = System.currentTimeMillis();
+                state.pendingDirection = 0;
+                state.pendingChecks = 0;
+                restartCoordinator.release(listenerId);
+            }
+        });
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("enabled", config.isEnabled());
+        for (MessageListenerContainer container : listenerRegistry.getListenerContainers()) {
+            if (!(container instanceof ConcurrentMessageListenerContainer<?, ?> concurrent)) {
+                continue;
+            }
+            ListenerState state = states.getOrDefault(concurrent.getListenerId(), new ListenerState());
+            Map<String, Object> listener = new HashMap<>();
+            listener.put("running", concurrent.isRunning());
+            listener.put("current_concurrency", concurrent.getConcurrency());
+            listener.put("target_concurrency", state.target > 0 ? state.target : concurrent.getConcurrency());
+            listener.put("partition_count", state.partitionCount);
+            listener.put("last_lag", state.lastLag);
+            listener.put("avg_processing_ms", state.lastAvgProcessingMs);
+            listener.put("pending_checks", state.pendingChecks);
+            listener.put("adjustments", state.adjustments.get());
+            listener.put("last_adjustment_time", state.lastAdjustmentTime);
+            status.put(concurrent.getListenerId(), listener);
+        }
+        return status;
+    }
+
+    private static class ListenerState {
+        private final AtomicLong processingNanos = new AtomicLong(0);
+        private final AtomicLong processedCount = new AtomicLong(0);
+        private final AtomicLong adjustments = new AtomicLong(0);
+        private volatile long lastAdjustmentTime = 0;
+        private volatile long lastLag = 0;
+        private volatile double lastAvgProcessingMs = 0.0;
+        private volatile int partitionCount = 0;
+        private volatile int target = 0;
+        private volatile int pendingDirection = 0;
+        private volatile int pendingChecks = 0;
+
+        // Average over the samples since the previous check, then reset
+        double drainAverageMs() {
+            long count = processedCount.getAndSet(0);
+            long nanos = processingNanos.getAndSet(0);
+            return count > 0 ? nanos / 1_000_000.0 / count : lastAvgProcessingMs;
+        }
+    }
+}
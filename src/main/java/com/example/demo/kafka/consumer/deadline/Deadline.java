@@ -0,0 +1,100 @@
+package com.example.demo.kafka.consumer.deadline;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Processing budget of the event being handled on the current thread. Handlers get it through
+ * {@link #current()} and can check it before expensive steps, so an event that is going to be
+ * parked stops early instead of finishing work that will be redone on retry.
+ * <p>
+ * The consumer thread abandoning the run and the worker committing it are mutually exclusive:
+ * whichever of {@link #abandon()} and {@link #tryCommit()} comes first wins.
+ */
+public final class Deadline {
+
+    /** Used when no budget applies; never expires. */
+    public static final Deadline NONE = new Deadline(null, Long.MAX_VALUE);
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private static final int RUNNING = 0;
+    private static final int COMMITTING = 1;
+    private static final int ABANDONED = 2;
+
+    private final String entityType;
+    private final long budgetMs;
+    private final long startNanos;
+    private final AtomicInteger state = new AtomicInteger(RUNNING);
+
+    Deadline(String entityType, long budgetMs) {
+        this.entityType = entityType;
+        this.budgetMs = budgetMs;
+        this.startNanos = System.nanoTime();
+    }
+
+    public static Deadline current() {
+        Deadline deadline = CURRENT.get();
+        return deadline != null ? deadline : NONE;
+    }
+
+    void runWith(Runnable work) {
+        Deadline previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            work.run();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    /**
+     * The consumer thread gives up waiting and parks the record.
+     * @return false if the worker is already committing; the consumer thread must then wait for it
+     */
+    boolean abandon() {
+        return state.compareAndSet(RUNNING, ABANDONED) || state.get() == ABANDONED;
+    }
+
+    /**
+     * The worker is about to commit the handler's transaction.
+     * @return false if the run was abandoned; the transaction must then be rolled back
+     */
+    boolean tryCommit() {
+        return state.compareAndSet(RUNNING, COMMITTING) || state.get() == COMMITTING;
+    }
+
+    public String getEntityType() {
+        return entityType;
+    }
+
+    public long getBudgetMs() {
+        return budgetMs;
+    }
+
+    public long elapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    public long remainingMillis() {
+        if (budgetMs == Long.MAX_VALUE) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, budgetMs - elapsedMillis());
+    }
+
+    public boolean isExpired() {
+        return state.get() == ABANDONED || remainingMillis() == 0;
+    }
+
+    public void throwIfExpired() {
+        if (isExpired()) {
+            throw new DeadlineExceededException("Deadline of " + budgetMs + " ms exceeded for " + entityType
+                    + " event after " + elapsedMillis() + " ms");
+        }
+    }
+}
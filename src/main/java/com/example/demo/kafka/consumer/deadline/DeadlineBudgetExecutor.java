@@ -0,0 +1,289 @@
+package com.example.demo.kafka.consumer.deadline;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.common.JsonUtil;
+import com.example.demo.kafka.config.DeadlineConfig;
+import com.example.demo.kafka.config.ErrorHandlingConfig;
+import com.example.demo.kafka.config.KafkaEventFormat;
+import com.example.demo.kafka.consumer.serde.AvroEnvelope;
+import com.example.demo.kafka.metrics.KafkaMetricsService;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs event handlers within a per-entity-type time budget. The handler runs on a worker while
+ * the consumer thread waits at most the budget; when it overruns, the consumer thread stops
+ * waiting, and the record is parked: re-published to the retry topic ({@code <topic>-retry},
+ * read by this group's listeners only) with a park counter header, or to the DLT once
+ * {@code max-parks} is reached, so the partition moves on. The original is only acknowledged
+ * once the parked copy is; a failed park is thrown as {@link ParkFailedException}. The worker
+ * is interrupted and its {@link Deadline} marked expired for handlers that check it.
+ * <p>
+ * Handlers run in their own transaction, outside the listener's, while budgets are enforced.
+ * An abandoned run can't commit: it is rolled back, so only the parked copy applies the event.
+ * Side effects outside that transaction (e.g. sent messages) are not rolled back, and a parked
+ * record is processed after later records of its key.
+ */
+@Slf4j
+@Component
+public class DeadlineBudgetExecutor {
+
+    private final DeadlineConfig config;
+    private final ErrorHandlingConfig errorConfig;
+    private final KafkaMetricsService kafkaMetricsService;
+    private final KafkaTemplate<String, Object> avroKafkaTemplate;
+    private final KafkaTemplate<String, Object> jsonKafkaTemplate;
+    private final KafkaTemplate<String, String> stringKafkaTemplate;
+    private final ThreadPoolExecutor workers;
+    private final TransactionTemplate handlerTransaction;
+    private final Map<String, BudgetStats> stats = new ConcurrentHashMap<>();
+
+    public DeadlineBudgetExecutor(DeadlineConfig config,
+                                  ErrorHandlingConfig errorConfig,
+                                  KafkaMetricsService kafkaMetricsService,
+                                  @Qualifier("avroKafkaTemplate") KafkaTemplate<String, Object> avroKafkaTemplate,
+                                  @Qualifier("jsonKafkaTemplate") KafkaTemplate<String, Object> jsonKafkaTemplate,
+                                  @Qualifier("stringKafkaTemplate") KafkaTemplate<String, String> stringKafkaTemplate,
+                                  PlatformTransactionManager transactionManager) {
+        this.config = config;
+        this.errorConfig = errorConfig;
+        this.kafkaMetricsService = kafkaMetricsService;
+        this.avroKafkaTemplate = avroKafkaTemplate;
+        this.jsonKafkaTemplate = jsonKafkaTemplate;
+        this.stringKafkaTemplate = stringKafkaTemplate;
+        this.handlerTransaction = new TransactionTemplate(transactionManager);
+        this.handlerTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        AtomicInteger threadCount = new AtomicInteger();
+        int threads = Math.max(1, config.getHandlerThreads());
+        this.workers = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new SynchronousQueue<>(), r -> {
+            Thread thread = new Thread(r, "deadline-worker-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.workers.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Runs the handler work for a record within its entity type's budget.
+     * @return true if the work completed, false if it overran the budget and the record was parked
+     * @throws ParkFailedException if the record overran but could not be parked
+     */
+    public boolean execute(String entityType, KafkaEventFormat format, ConsumerRecord<String, ?> record, Runnable work) {
+        if (!config.isEnabled()) {
+            work.run();
+            return true;
+        }
+        BudgetStats budgetStats = stats.computeIfAbsent(entityType, k -> new BudgetStats());
+        Deadline deadline = new Deadline(entityType, budgetFor(entityType));
+        Future<?> future;
+        Runnable transactional = () -> runInTransaction(deadline, work);
+        try {
+            future = workers.submit(() -> deadline.runWith(transactional));
+        } catch (RejectedExecutionException e) {
+            // Every worker is still busy with overrunning handlers: run here, the budget is only advisory
+            budgetStats.inlineRuns.increment();
+            try {
+                deadline.runWith(transactional);
+                budgetStats.completed.increment();
+                return true;
+            } catch (DeadlineExceededException exceeded) {
+                park(format, record, deadline, budgetStats);
+                return false;
+            }
+        }
+
+        try {
+            future.get(deadline.getBudgetMs(), TimeUnit.MILLISECONDS);
+            budgetStats.completed.increment();
+            return true;
+        } catch (TimeoutException e) {
+            if (!deadline.abandon()) {
+                // The worker finished the handler and is committing: its outcome stands
+                awaitCommit(future, entityType);
+                budgetStats.completed.increment();
+                return true;
+            }
+            future.cancel(true);
+        } catch (ExecutionException e) {
+            if (!(e.getCause() instanceof DeadlineExceededException)) {
+                throw rethrow(e.getCause());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            deadline.abandon();
+            future.cancel(true);
+            throw new IllegalStateException("Interrupted while waiting for the " + entityType + " handler", e);
+        }
+        park(format, record, deadline, budgetStats);
+        return false;
+    }
+
+    // The handler's transaction commits only if the consumer thread has not abandoned the run
+    private void runInTransaction(Deadline deadline, Runnable work) {
+        handlerTransaction.executeWithoutResult(status -> {
+            work.run();
+            if (!deadline.tryCommit()) {
+                status.setRollbackOnly();
+            }
+        });
+    }
+
+    private void awaitCommit(Future<?> future, String entityType) {
+        try {
+            future.get();
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the " + entityType + " handler to commit", e);
+        }
+    }
+
+    private long budgetFor(String entityType) {
+        Long budget = config.getBudgets().get(entityType);
+        return budget != null ? budget : config.getDefaultBudgetMs();
+    }
+
+    private void park(KafkaEventFormat format, ConsumerRecord<String, ?> record, Deadline deadline, BudgetStats budgetStats) {
+        budgetStats.violations.increment();
+        int parks = parkCount(record.headers()) + 1;
+        boolean deadLetter = parks > config.getMaxParks();
+        String sourceTopic = sourceTopicOf(record.topic());
+        String target = sourceTopic + (deadLetter ? errorConfig.getDlt().getSuffix() : config.getRetryTopicSuffix());
+        Headers headers = new RecordHeaders();
+        for (Header header : record.headers()) {
+            if (!config.getParkHeader().equals(header.key())) {
+                headers.add(header);
+            }
+        }
+        headers.add(config.getParkHeader(), ByteBuffer.allocate(Integer.BYTES).putInt(parks).array());
+
+        log.warn("Deadline exceeded for {} event: Topic={}, Partition={}, Offset={}, BudgetMs={}, ElapsedMs={}. Parking attempt {} to {}",
+                deadline.getEntityType(), record.topic(), record.partition(), record.offset(),
+                deadline.getBudgetMs(), deadline.elapsedMillis(), parks, target);
+        kafkaMetricsService.recordError(record.topic(), "DeadlineExceeded",
+                "Budget of " + deadline.getBudgetMs() + " ms exceeded for " + deadline.getEntityType());
+
+        // Wait for the parked copy: the original is acknowledged once this returns
+        CompletableFuture<?> send;
+        try {
+            switch (format) {
+                case AVRO:
+                    send = avroKafkaTemplate.send(new ProducerRecord<>(target, null, record.key(),
+                            AvroEnvelope.decoded(record.value()), headers));
+                    break;
+                case JSON:
+                    send = jsonKafkaTemplate.send(new ProducerRecord<>(target, null, record.key(),
+                            (Object) record.value(), headers));
+                    break;
+                default:
+                    Object value = record.value();
+                    String text = value == null || value instanceof String ? (String) value : JsonUtil.toJson(value);
+                    send = stringKafkaTemplate.send(new ProducerRecord<>(target, null, record.key(), text, headers));
+            }
+            send.get(config.getParkSendTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            budgetStats.parkFailures.increment();
+            throw new ParkFailedException("Interrupted while parking record from " + record.topic(), e);
+        } catch (Exception e) {
+            budgetStats.parkFailures.increment();
+            Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+            log.error("Failed to park record to {}: Topic={}, Partition={}, Offset={}",
+                    target, record.topic(), record.partition(), record.offset(), cause);
+            throw new ParkFailedException("Failed to park record from " + record.topic() + " to " + target, cause);
+        }
+        if (deadLetter) {
+            budgetStats.deadLettered.increment();
+        } else {
+            budgetStats.parked.increment();
+        }
+    }
+
+    // Records parked before are read from the retry topic; park them there again, not on <topic>-retry-retry
+    private String sourceTopicOf(String topic) {
+        String suffix = config.getRetryTopicSuffix();
+        return topic.endsWith(suffix) ? topic.substring(0, topic.length() - suffix.length()) : topic;
+    }
+
+    private int parkCount(Headers headers) {
+        Header header = headers.lastHeader(config.getParkHeader());
+        if (header == null || header.value() == null || header.value().length != Integer.BYTES) {
+            return 0;
+        }
+        return ByteBuffer.wrap(header.value()).getInt();
+    }
+
+    private static RuntimeException rethrow(Throwable cause) {
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException(cause);
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("enabled", config.isEnabled());
+        statistics.put("default_budget_ms", config.getDefaultBudgetMs());
+        statistics.put("handler_threads", workers.getMaximumPoolSize());
+        statistics.put("active_workers", workers.getActiveCount());
+        Map<String, Object> entities = new HashMap<>();
+        stats.forEach((entityType, budgetStats) -> {
+            Map<String, Object> entity = new HashMap<>();
+            entity.put("budget_ms", budgetFor(entityType));
+            entity.put("completed", budgetStats.completed.sum());
+            entity.put("violations", budgetStats.violations.sum());
+            entity.put("parked", budgetStats.parked.sum());
+            entity.put("dead_lettered", budgetStats.deadLettered.sum());
+            entity.put("inline_runs", budgetStats.inlineRuns.sum());
+            entity.put("park_failures", budgetStats.parkFailures.sum());
+            entities.put(entityType, entity);
+        });
+        statistics.put("entities", entities);
+        return statistics;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private static class BudgetStats {
+        private final LongAdder completed = new LongAdder();
+        private final LongAdder violations = new LongAdder();
+        private final LongAdder parked = new LongAdder();
+        private final LongAdder deadLettered = new LongAdder();
+        private final LongAdder inlineRuns = new LongAdder();
+        private final LongAdder parkFailures = new LongAdder();
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.demo.kafka.consumer.deadline;
+
+/**
+ * Thrown by a handler that checked its {@link Deadline} and found the budget spent.
+ */
+public class DeadlineExceededException extends RuntimeException {
+
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+}
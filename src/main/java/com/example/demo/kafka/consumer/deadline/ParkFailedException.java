@@ -0,0 +1,13 @@
+package com.example.demo.kafka.consumer.deadline;
+
+/**
+ * Thrown when an overrunning record could not be published to its retry topic or DLT. The
+ * record must not be acknowledged: the listener seeks its consumer back to the record and
+ * rethrows, and the container's error handler only pauses the partition for a backoff.
+ */
+public class ParkFailedException extends RuntimeException {
+
+    public ParkFailedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.demo.kafka.consumer.gate;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.kafka.config.KafkaEventFormat;
+import com.example.demo.kafka.config.KafkaTopicsProvider;
+import com.example.demo.kafka.consumer.rebalance.PartitionScopedState;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Holds back the partitions of entities that are not enabled for consumption instead of
+ * acknowledging their records. The first record seen on such a partition is left
+ * unacknowledged, the consumer is sought back to it and the partition is paused, so the
+ * committed offset stays before it and the backlog is consumed once the entity is enabled.
+ * <p>
+ * Enabled entities are per instance (see {@link KafkaTopicsProvider#setEntities}): a partition
+ * is only processed by the instance it is assigned to, and only if the entity is enabled there.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DisabledEntityGate implements PartitionScopedState {
+
+    private final KafkaTopicsProvider kafkaTopicsProvider;
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+
+    // Held partition -> offset of the first record not processed
+    private final Map<TopicPartition, Held> held = new ConcurrentHashMap<>();
+
+    /**
+     * Called on the listener thread for every record before processing.
+     * @param consumer the listener's consumer, or {@code null} for records not read by a
+     *                 listener (replays), which are only skipped
+     * @return true if the record may be processed; false if it must be neither processed nor
+     *         acknowledged
+     */
+    public boolean admit(KafkaEventFormat format, ConsumerRecord<?, ?> record, Consumer<?, ?> consumer) {
+        String entityType = entityTypeOf(record.topic());
+        if (kafkaTopicsProvider.isEntityEnabled(format, entityType)) {
+            return true;
+        }
+        TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+        if (consumer != null && held.putIfAbsent(partition, new Held(format, entityType, record.offset())) == null) {
+            // Later records of the partition from the same poll are still delivered and skipped here
+            consumer.seek(partition, record.offset());
+            forEachContainer(container -> container.pausePartition(partition));
+            log.info("Entity {} not enabled for {} consumption, holding {} at offset {}", entityType, format, partition, record.offset());
+        }
+        return false;
+    }
+
+    /**
+     * Resumes the held partitions of entities enabled since they were held; called after the
+     * enabled entities change and periodically.
+     */
+    @Scheduled(fixedDelayString = "${kafka.topics.gate-check-interval-ms:5000}")
+    public void releaseEnabled() {
+        held.forEach((partition, hold) -> {
+            if (kafkaTopicsProvider.isEntityEnabled(hold.format(), hold.entityType()) && held.remove(partition, hold)) {
+                forEachContainer(container -> container.resumePartition(partition));
+                log.info("Entity {} enabled for {} consumption, resuming {} from offset {}",
+                        hold.entityType(), hold.format(), partition, hold.offset());
+            }
+        });
+    }
+
+    // The next owner holds the partition again at the committed offset if the entity is still disabled
+    @Override
+    public void flushPartitions(Collection<TopicPartition> revoked) {
+        for (TopicPartition partition : revoked) {
+            if (held.remove(partition) != null) {
+                forEachContainer(container -> container.resumePartition(partition));
+            }
+        }
+    }
+
+    private void forEachContainer(java.util.function.Consumer<MessageListenerContainer> action) {
+        listenerRegistry.getListenerContainers().forEach(action);
+    }
+
+    private String entityTypeOf(String topic) {
+        int dashIdx = topic.indexOf('-');
+        return dashIdx > 0 ? topic.substring(0, dashIdx) : topic;
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new HashMap<>();
+        held.forEach((partition, hold) -> status.put(partition.toString(),
+                Map.of("entity", hold.entityType(), "format", hold.format(), "held_at_offset", hold.offset())));
+        return status;
+    }
+
+    private record Held(KafkaEventFormat format, String entityType, long offset) {
+    }
+}
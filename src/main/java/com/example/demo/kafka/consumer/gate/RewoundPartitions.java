@@ -0,0 +1,64 @@
+package com.example.demo.kafka.consumer.gate;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.kafka.consumer.rebalance.PartitionScopedState;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Partitions whose consumer was sought back to a record that must be delivered again, e.g. one
+ * that could neither be processed in time nor parked. The container still hands over the later
+ * records of the current poll; they are neither processed nor acknowledged, so no offset past
+ * the rewound record is committed before it is delivered again.
+ */
+@Slf4j
+@Component
+public class RewoundPartitions implements PartitionScopedState {
+
+    // Rewound partition -> offset the consumer was sought back to
+    private final Map<TopicPartition, Long> rewound = new ConcurrentHashMap<>();
+
+    /**
+     * Seeks the listener's consumer back to the record; called on the listener thread.
+     */
+    public void rewind(ConsumerRecord<?, ?> record, Consumer<?, ?> consumer) {
+        TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+        consumer.seek(partition, record.offset());
+        rewound.put(partition, record.offset());
+        log.warn("Rewound {} to offset {} for redelivery", partition, record.offset());
+    }
+
+    /**
+     * @return true if the record may be processed; false if it is a later record of a rewound
+     *         partition from the same poll, which must be neither processed nor acknowledged
+     */
+    public boolean admit(ConsumerRecord<?, ?> record) {
+        if (rewound.isEmpty()) {
+            return true;
+        }
+        TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+        Long offset = rewound.get(partition);
+        if (offset == null) {
+            return true;
+        }
+        if (record.offset() <= offset) {
+            // Delivered again from the rewound offset
+            rewound.remove(partition, offset);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void flushPartitions(Collection<TopicPartition> revoked) {
+        rewound.keySet().removeAll(revoked);
+    }
+}
@@ -5,13 +5,14 @@ import org.springframework.stereotype.Component;
 import com.example.avro.AvroUser;
 import com.example.avro.mapper.AvroUserMapper;
 import com.example.demo.app.entity.User;
+import com.example.demo.kafka.config.KafkaEventFormat;
+import com.example.demo.kafka.consumer.handler.annotation.EventHandler;
+import com.example.demo.kafka.consumer.handler.annotation.EventOperation;
 import com.example.demo.kafka.consumer.handler.generic.SimpleKafkaEventHandler;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
-//@EventHandler(entityType = "user", operation = "CREATE/ UPDATE/ DELETE")
-
 @RequiredArgsConstructor
 @Slf4j
 @Component
@@ -55,6 +56,21 @@ public class UserEventHandler extends SimpleKafkaEventHandler<User, AvroUser>{
         // Add custom logic
     }
 
+    @EventHandler(entity = "user", operation = EventOperation.CREATE, format = KafkaEventFormat.AVRO)
+    public void onAvroCreate(AvroUser avroUser) {
+        handleCreate(toEntity(avroUser));
+    }
+
+    @EventHandler(entity = "user", operation = EventOperation.UPDATE, format = KafkaEventFormat.AVRO)
+    public void onAvroUpdate(AvroUser avroUser) {
+        handleUpdate(toEntity(avroUser));
+    }
+
+    @EventHandler(entity = "user", operation = EventOperation.DELETE, format = KafkaEventFormat.AVRO)
+    public void onAvroDelete(AvroUser avroUser) {
+        handleDelete(toEntity(avroUser));
+    }
+
     @Override
     protected User toEntity(AvroUser avroUser) {
         return mapper.toEntity(avroUser);
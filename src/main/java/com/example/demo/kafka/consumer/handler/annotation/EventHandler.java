@@ -0,0 +1,35 @@
+package com.example.demo.kafka.consumer.handler.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import com.example.demo.kafka.config.KafkaEventFormat;
+
+/**
+ * Marks a bean method as the handler of an (entity, operation, format) combination. The method
+ * takes a single argument, resolved per format from its type:
+ * <ul>
+ *   <li>AVRO: {@code AvroEnvelope} (lazy, not decoded), {@code AvroEventWrapper}, or the payload
+ *       record class (e.g. {@code AvroUser})</li>
+ *   <li>JSON/STRING: {@code EventWrapper}, {@code String} (raw data), or a class the JSON data is
+ *       mapped to</li>
+ * </ul>
+ * Methods are discovered at startup; see {@code AnnotatedEventHandlerRegistry}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface EventHandler {
+
+    /**
+     * Entity type as it appears in the topic name, e.g. "user".
+     */
+    String entity();
+
+    EventOperation[] operation() default {EventOperation.CREATE, EventOperation.UPDATE, EventOperation.DELETE};
+
+    KafkaEventFormat[] format() default {KafkaEventFormat.AVRO, KafkaEventFormat.JSON, KafkaEventFormat.STRING};
+}
@@ -0,0 +1,26 @@
+package com.example.demo.kafka.consumer.handler.annotation;
+
+public enum EventOperation {
+
+    CREATE, UPDATE, DELETE;
+
+    /**
+     * @return the operation for an event type such as "create" or "UPDATE", or null if unknown
+     */
+    public static EventOperation of(CharSequence eventType) {
+        if (eventType == null) {
+            return null;
+        }
+        String type = eventType.toString();
+        if ("create".equalsIgnoreCase(type)) {
+            return CREATE;
+        }
+        if ("update".equalsIgnoreCase(type)) {
+            return UPDATE;
+        }
+        if ("delete".equalsIgnoreCase(type)) {
+            return DELETE;
+        }
+        return null;
+    }
+}
@@ -5,6 +5,7 @@ import java.util.Optional;
 import org.apache.avro.specific.SpecificRecord;
 
 import com.example.demo.kafka.config.KafkaEventFormat;
+import com.example.demo.kafka.consumer.deadline.Deadline;
 import com.example.demo.kafka.factory.EventWrapper;
 
 import lombok.extern.slf4j.Slf4j;
@@ -49,7 +50,16 @@ public abstract class SimpleKafkaEventHandler<Entity, TPayload extends SpecificR
         this.eventOperation(entity, event.getEventType());
     }
 
+    /**
+     * Budget of the event being handled; long-running handlers can check it between steps.
+     */
+    protected Deadline deadline() {
+        return Deadline.current();
+    }
+
     private void eventOperation(Entity entity, String eventType){
+        // Conversion may have used up the budget; do not start the operation if it has
+        deadline().throwIfExpired();
         String op = Optional.ofNullable(eventType)
                     .map(String::toLowerCase)
                     .orElse("unknown");
@@ -0,0 +1,121 @@
+package com.example.demo.kafka.consumer.lag;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.kafka.metrics.KafkaMetricsService;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Computes consumer group lag for the topics of a listener container through the admin client
+ * and publishes the per-topic values to {@link KafkaMetricsService}. When the lag cannot be
+ * determined (admin errors, nothing assigned, no partitions) {@link LagSnapshot#UNKNOWN} is
+ * returned rather than a zero lag, so callers do not mistake a failed lookup for an idle group.
+ */
+@Slf4j
+@Component
+public class ConsumerLagMonitor {
+
+    private static final long ADMIN_TIMEOUT_MS = 5000;
+
+    private final KafkaAdmin kafkaAdmin;
+    private final KafkaMetricsService kafkaMetricsService;
+    private volatile AdminClient adminClient;
+
+    public ConsumerLagMonitor(KafkaAdmin kafkaAdmin, KafkaMetricsService kafkaMetricsService) {
+        this.kafkaAdmin = kafkaAdmin;
+        this.kafkaMetricsService = kafkaMetricsService;
+    }
+
+    public record LagSnapshot(long totalLag, int partitionCount, Map<String, Long> lagPerTopic) {
+        public static final LagSnapshot UNKNOWN = new LagSnapshot(-1, 0, Map.of());
+
+        public boolean isKnown() {
+            return totalLag >= 0;
+        }
+    }
+
+    public LagSnapshot snapshot(MessageListenerContainer container) {
+        String[] topics = container.getContainerProperties().getTopics();
+        if (topics != null && topics.length > 0) {
+            return snapshot(container.getGroupId(), Arrays.asList(topics));
+        }
+        // Pattern subscriptions: use the topics currently assigned to this container
+        Collection<TopicPartition> assigned = container.getAssignedPartitions();
+        if (assigned == null || assigned.isEmpty()) {
+            return LagSnapshot.UNKNOWN;
+        }
+        return snapshot(container.getGroupId(), assigned.stream().map(TopicPartition::topic).distinct().toList());
+    }
+
+    public LagSnapshot snapshot(String groupId, Collection<String> topics) {
+        try {
+            AdminClient admin = admin();
+            Map<String, TopicDescription> descriptions = admin.describeTopics(topics)
+                    .allTopicNames().get(ADMIN_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            List<TopicPartition> partitions = descriptions.values().stream()
+                    .flatMap(d -> d.partitions().stream().map(p -> new TopicPartition(d.name(), p.partition())))
+                    .collect(Collectors.toList());
+            if (partitions.isEmpty()) {
+                return LagSnapshot.UNKNOWN;
+            }
+
+            Map<TopicPartition, OffsetAndMetadata> committed = admin.listConsumerGroupOffsets(groupId)
+                    .partitionsToOffsetAndMetadata().get(ADMIN_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            Map<TopicPartition, OffsetSpec> latestSpec = partitions.stream()
+                    .collect(Collectors.toMap(tp -> tp, tp -> OffsetSpec.latest()));
+            Map<TopicPartition, Long> endOffsets = admin.listOffsets(latestSpec).all()
+                    .get(ADMIN_TIMEOUT_MS, TimeUnit.MILLISECONDS).entrySet().stream()
+                    .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().offset()));
+
+            Map<String, Long> lagPerTopic = new HashMap<>();
+            long totalLag = 0;
+            for (TopicPartition tp : partitions) {
+                OffsetAndMetadata offset = committed.get(tp);
+                long end = endOffsets.getOrDefault(tp, 0L);
+                long lag = Math.max(0, end - (offset != null ? offset.offset() : 0));
+                lagPerTopic.merge(tp.topic(), lag, Long::sum);
+                totalLag += lag;
+            }
+            lagPerTopic.forEach(kafkaMetricsService::setConsumerLag);
+            return new LagSnapshot(totalLag, partitions.size(), lagPerTopic);
+        } catch (Exception e) {
+            log.warn("Could not compute consumer lag for group={} topics={}: {}", groupId, topics, e.getMessage());
+            return LagSnapshot.UNKNOWN;
+        }
+    }
+
+    private AdminClient admin() {
+        if (adminClient == null) {
+            synchronized (this) {
+                if (adminClient == null) {
+                    adminClient = AdminClient.create(kafkaAdmin.getConfigurationProperties());
+                }
+            }
+        }
+        return adminClient;
+    }
+
+    @PreDestroy
+    public void close() {
+        if (adminClient != null) {
+            adminClient.close();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.demo.kafka.consumer.lag;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Serializes the stop/start cycles that the lag-driven controllers apply to a listener
+ * container. {@link com.example.demo.kafka.consumer.concurrency.ElasticConcurrencyController}
+ * and {@link com.example.demo.kafka.consumer.catchup.CatchUpModeController} both bounce
+ * containers to apply their changes; a controller only stops a container after acquiring it
+ * here and releases it once the container was started again, so the two never interleave.
+ */
+@Component
+public class ContainerRestartCoordinator {
+
+    private final Set<String> restarting = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @return true if the caller now owns the restart of the listener; false if another
+     *         restart of it is in progress
+     */
+    public boolean tryAcquire(String listenerId) {
+        return restarting.add(listenerId);
+    }
+
+    public void release(String listenerId) {
+        restarting.remove(listenerId);
+    }
+
+    public boolean isRestarting(String listenerId) {
+        return restarting.contains(listenerId);
+    }
+}
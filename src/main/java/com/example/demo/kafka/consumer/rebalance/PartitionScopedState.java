@@ -0,0 +1,22 @@
+package com.example.demo.kafka.consumer.rebalance;
+
+import java.util.Collection;
+
+import org.apache.kafka.common.TopicPartition;
+
+/**
+ * Consumer-side state kept per partition (in-flight batches, pending writes, caches) that must be
+ * flushed or dropped when this instance stops owning a partition. Implementations are picked up
+ * by {@link PartitionStateRebalanceListener}.
+ */
+public interface PartitionScopedState {
+
+    /**
+     * Called on the consumer thread before offsets of the revoked partitions are committed.
+     * Only the revoked partitions are passed; state of retained partitions must be left untouched.
+     */
+    void flushPartitions(Collection<TopicPartition> revoked);
+
+    default void onPartitionsAssigned(Collection<TopicPartition> assigned) {
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.demo.kafka.consumer.rebalance;
+
+import java.util.Collection;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Rebalance listener shared by all listener containers. With the cooperative-sticky assignor the
+ * callbacks only carry the partitions that actually move, so partition-scoped state is flushed
+ * for those alone and the remaining partitions keep processing during the rebalance. Pending
+ * manual acks of the revoked partitions are committed by the container after this callback.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PartitionStateRebalanceListener implements ConsumerAwareRebalanceListener {
+
+    private final ObjectProvider<PartitionScopedState> partitionStates;
+
+    @Override
+    public void onPartitionsRevokedBeforeCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        if (partitions.isEmpty()) {
+            return;
+        }
+        log.info("Partitions revoked: {}", partitions);
+        flush(partitions);
+    }
+
+    @Override
+    public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        if (partitions.isEmpty()) {
+            return;
+        }
+        log.warn("Partitions lost: {}", partitions);
+        flush(partitions);
+    }
+
+    @Override
+    public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        if (partitions.isEmpty()) {
+            return;
+        }
+        log.info("Partitions assigned: {}", partitions);
+        partitionStates.orderedStream().forEach(state -> state.onPartitionsAssigned(partitions));
+    }
+
+    private void flush(Collection<TopicPartition> partitions) {
+        partitionStates.orderedStream().forEach(state -> {
+            try {
+                state.flushPartitions(partitions);
+            } catch (Exception e) {
+                log.error("Failed to flush {} for partitions {}", state.getClass().getSimpleName(), partitions, e);
+            }
+        });
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.demo.kafka.consumer.replay;
+
+import java.util.List;
+
+/**
+ * Topics and time window to reprocess. {@code toTimestamp} defaults to now and
+ * {@code recordsPerSecond} to {@code kafka.consumer.replay.records-per-second}.
+ */
+public record ReplayRequest(List<String> topics, Long fromTimestamp, Long toTimestamp, Integer recordsPerSecond) {
+}
@@ -0,0 +1,351 @@
+package com.example.demo.kafka.consumer.replay;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetAndTimestamp;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.stereotype.Service;
+
+import com.example.demo.kafka.config.KafkaConsumerConfig;
+import com.example.demo.kafka.config.KafkaEventFormat;
+import com.example.demo.kafka.config.ReplayConfig;
+import com.example.demo.kafka.consumer.util.KafkaEventConsumer;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reprocesses the records of a time window through the normal handlers. Offsets are resolved
+ * with {@code offsetsForTimes}; every partition is then read by its own manually assigned
+ * consumer in a replay-specific group, so the live group's offsets are left untouched. Records
+ * bypass the processing-record dedupe check, since they have all been processed before. A record
+ * whose handler fails is counted as failed and skipped; a partition with failed records ends
+ * in state FAILED once the rest of its window has been replayed.
+ */
+@Slf4j
+@Service
+public class ReplayService {
+
+    private final KafkaConsumerConfig kafkaConsumerConfig;
+    private final KafkaEventConsumer kafkaEventConsumer;
+    private final ReplayConfig config;
+    private final ExecutorService workers;
+
+    private final Map<String, ReplayJob> replays = new LinkedHashMap<>();
+
+    public ReplayService(KafkaConsumerConfig kafkaConsumerConfig, KafkaEventConsumer kafkaEventConsumer, ReplayConfig config) {
+        this.kafkaConsumerConfig = kafkaConsumerConfig;
+        this.kafkaEventConsumer = kafkaEventConsumer;
+        this.config = config;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(config.getMaxParallelism(), r -> {
+            Thread thread = new Thread(r, "kafka-replay-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public Map<String, Object> start(ReplayRequest request) {
+        if (request.topics() == null || request.topics().isEmpty() || request.fromTimestamp() == null) {
+            throw new IllegalArgumentException("topics and fromTimestamp are required");
+        }
+        long to = request.toTimestamp() != null ? request.toTimestamp() : System.currentTimeMillis();
+        if (to <= request.fromTimestamp()) {
+            throw new IllegalArgumentException("toTimestamp must be after fromTimestamp");
+        }
+        for (String topic : request.topics()) {
+            formatOf(topic);
+        }
+
+        String replayId = UUID.randomUUID().toString().substring(0, 8);
+        String groupId = kafkaConsumerConfig.getGroupId() + "-" + config.getGroupSuffix() + "-" + replayId;
+        int rate = request.recordsPerSecond() != null ? request.recordsPerSecond() : config.getRecordsPerSecond();
+        ReplayJob job = new ReplayJob(replayId, groupId, request.topics(), request.fromTimestamp(), to, rate);
+        log.info("Entry @class ReplayService @method start replayId: {} group: {} topics: {} from: {} to: {} rate: {}/s",
+                replayId, groupId, request.topics(), request.fromTimestamp(), to, rate);
+
+        plan(job);
+        synchronized (replays) {
+            replays.put(replayId, job);
+            evictFinished();
+        }
+        job.progress.values().stream()
+                .filter(p -> p.startOffset < p.endOffset)
+                .forEach(p -> workers.submit(() -> replayPartition(job, p)));
+        job.finishIfDone();
+        return job.toStatus();
+    }
+
+    public Map<String, Object> getReplay(String replayId) {
+        ReplayJob job;
+        synchronized (replays) {
+            job = replays.get(replayId);
+        }
+        return job != null ? job.toStatus() : null;
+    }
+
+    public List<Map<String, Object>> getReplays() {
+        synchronized (replays) {
+            return replays.values().stream().map(ReplayJob::toStatus).toList();
+        }
+    }
+
+    public Map<String, Object> cancel(String replayId) {
+        ReplayJob job;
+        synchronized (replays) {
+            job = replays.get(replayId);
+        }
+        if (job == null) {
+            return null;
+        }
+        job.cancelled = true;
+        log.info("Replay {} cancellation requested", replayId);
+        return job.toStatus();
+    }
+
+    /**
+     * Resolves the start and end offset of every partition: the first offset at or after the
+     * window start, and the first offset after the window end (or the log end offset).
+     */
+    private void plan(ReplayJob job) {
+        Map<String, Object> props = kafkaConsumerConfig.replayConsumerConfig(KafkaEventFormat.STRING, job.groupId, "replay-" + job.id);
+        try (KafkaConsumer<String, String> consumer = new KafkaConsumer<>(props)) {
+            List<TopicPartition> partitions = new ArrayList<>();
+            for (String topic : job.topics) {
+                List<PartitionInfo> infos = consumer.partitionsFor(topic);
+                if (infos == null || infos.isEmpty()) {
+                    throw new IllegalArgumentException("Unknown topic: " + topic);
+                }
+                infos.forEach(info -> partitions.add(new TopicPartition(info.topic(), info.partition())));
+            }
+            Map<TopicPartition, Long> fromQuery = new HashMap<>();
+            Map<TopicPartition, Long> toQuery = new HashMap<>();
+            partitions.forEach(tp -> {
+                fromQuery.put(tp, job.fromTimestamp);
+                toQuery.put(tp, job.toTimestamp);
+            });
+            Map<TopicPartition, OffsetAndTimestamp> startOffsets = consumer.offsetsForTimes(fromQuery);
+            Map<TopicPartition, OffsetAndTimestamp> endOffsets = consumer.offsetsForTimes(toQuery);
+            Map<TopicPartition, Long> logEndOffsets = consumer.endOffsets(partitions);
+
+            for (TopicPartition tp : partitions) {
+                long logEnd = logEndOffsets.getOrDefault(tp, 0L);
+                OffsetAndTimestamp start = startOffsets.get(tp);
+                OffsetAndTimestamp end = endOffsets.get(tp);
+                long startOffset = start != null ? start.offset() : logEnd;
+                long endOffset = end != null ? end.offset() : logEnd;
+                job.progress.put(tp.toString(), new PartitionProgress(tp, startOffset, endOffset));
+            }
+        }
+    }
+
+    private void replayPartition(ReplayJob job, PartitionProgress progress) {
+        TopicPartition tp = progress.partition;
+        KafkaEventFormat format = formatOf(tp.topic());
+        Map<String, Object> props = kafkaConsumerConfig.replayConsumerConfig(format, job.groupId, "replay-" + job.id + "-" + tp);
+        progress.state = "RUNNING";
+        try (KafkaConsumer<String, Object> consumer = new KafkaConsumer<>(props)) {
+            consumer.assign(List.of(tp));
+            consumer.seek(tp, progress.startOffset);
+            long committed = progress.startOffset;
+            while (!job.cancelled && progress.position.get() < progress.endOffset) {
+                ConsumerRecords<String, Object> records = consumer.poll(Duration.ofMillis(config.getPollTimeoutMs()));
+                for (ConsumerRecord<String, Object> record : records) {
+                    if (job.cancelled) {
+                        break;
+                    }
+                    if (record.offset() >= progress.endOffset) {
+                        // Transaction markers or compacted gaps may sit between the last record and the end
+                        progress.position.set(progress.endOffset);
+                        break;
+                    }
+                    job.rateLimiter.acquire();
+                    try {
+                        kafkaEventConsumer.replay(record, format);
+                        progress.processed.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        log.warn("Replay {} failed to process {} at offset {}: {}", job.id, tp, record.offset(), e.getMessage());
+                        progress.failed.incrementAndGet();
+                        progress.error = "offset " + record.offset() + ": " + e.getMessage();
+                    }
+                    progress.position.set(record.offset() + 1);
+                }
+                if (!job.cancelled) {
+                    // Compacted or transactional gaps: the consumer position moves past offsets without records
+                    progress.position.set(Math.min(progress.endOffset, Math.max(progress.position.get(), consumer.position(tp))));
+                }
+                if (progress.position.get() > committed) {
+                    committed = progress.position.get();
+                    consumer.commitSync(Map.of(tp, new OffsetAndMetadata(committed)));
+                }
+            }
+            progress.state = job.cancelled ? "CANCELLED" : progress.failed.get() > 0 ? "FAILED" : "COMPLETED";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            progress.state = "CANCELLED";
+        } catch (Exception e) {
+            log.error("Replay {} failed on partition {}", job.id, tp, e);
+            progress.state = "FAILED";
+            progress.error = e.getMessage();
+        } finally {
+            job.finishIfDone();
+        }
+    }
+
+    private KafkaEventFormat formatOf(String topic) {
+        int lastDash = topic.lastIndexOf('-');
+        try {
+            return KafkaEventFormat.valueOf(topic.substring(lastDash + 1).toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cannot determine event format of topic: " + topic);
+        }
+    }
+
+    private void evictFinished() {
+        List<String> finished = replays.values().stream()
+                .filter(job -> job.finishedTime > 0)
+                .map(job -> job.id)
+                .toList();
+        int excess = finished.size() - config.getRetainedReplays();
+        for (int i = 0; i < excess; i++) {
+            replays.remove(finished.get(i));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        synchronized (replays) {
+            replays.values().forEach(job -> job.cancelled = true);
+        }
+        workers.shutdownNow();
+    }
+
+    private static class ReplayJob {
+        private final String id;
+        private final String groupId;
+        private final List<String> topics;
+        private final long fromTimestamp;
+        private final long toTimestamp;
+        private final int recordsPerSecond;
+        private final ReplayRateLimiter rateLimiter;
+        private final Map<String, PartitionProgress> progress = new LinkedHashMap<>();
+        private final long startTime = System.currentTimeMillis();
+        private volatile long finishedTime = 0;
+        private volatile boolean cancelled = false;
+
+        ReplayJob(String id, String groupId, List<String> topics, long fromTimestamp, long toTimestamp, int recordsPerSecond) {
+            this.id = id;
+            this.groupId = groupId;
+            this.topics = List.copyOf(topics);
+            this.fromTimestamp = fromTimestamp;
+            this.toTimestamp = toTimestamp;
+            this.recordsPerSecond = recordsPerSecond;
+            this.rateLimiter = new ReplayRateLimiter(recordsPerSecond);
+        }
+
+        synchronized void finishIfDone() {
+            if (finishedTime == 0 && progress.values().stream().allMatch(PartitionProgress::isFinished)) {
+                finishedTime = System.currentTimeMillis();
+                log.info("Replay {} finished in {} ms: {} records, {} failed", id, finishedTime - startTime, processed(), failed());
+            }
+        }
+
+        long processed() {
+            return progress.values().stream().mapToLong(p -> p.processed.get()).sum();
+        }
+
+        long failed() {
+            return progress.values().stream().mapToLong(p -> p.failed.get()).sum();
+        }
+
+        String state() {
+            if (finishedTime == 0) {
+                return cancelled ? "CANCELLING" : "RUNNING";
+            }
+            if (progress.values().stream().anyMatch(p -> "FAILED".equals(p.state))) {
+                return "FAILED";
+            }
+            return cancelled ? "CANCELLED" : "COMPLETED";
+        }
+
+        Map<String, Object> toStatus() {
+            long total = progress.values().stream().mapToLong(PartitionProgress::total).sum();
+            long processed = processed();
+            long failed = failed();
+            Map<String, Object> status = new HashMap<>();
+            status.put("replay_id", id);
+            status.put("group_id", groupId);
+            status.put("topics", topics);
+            status.put("from_timestamp", fromTimestamp);
+            status.put("to_timestamp", toTimestamp);
+            status.put("records_per_second", recordsPerSecond);
+            status.put("state", state());
+            status.put("start_time", startTime);
+            status.put("finished_time", finishedTime);
+            status.put("total_records", total);
+            status.put("processed_records", processed);
+            status.put("failed_records", failed);
+            status.put("progress_percent", total > 0 ? Math.min(100.0, (processed + failed) * 100.0 / total) : 100.0);
+            Map<String, Object> partitions = new HashMap<>();
+            progress.forEach((key, p) -> partitions.put(key, p.toStatus()));
+            status.put("partitions", partitions);
+            return status;
+        }
+    }
+
+    private static class PartitionProgress {
+        private final TopicPartition partition;
+        private final long startOffset;
+        private final long endOffset;
+        private final AtomicLong position;
+        private final AtomicLong processed = new AtomicLong(0);
+        private final AtomicLong failed = new AtomicLong(0);
+        private volatile String state;
+        private volatile String error;
+
+        PartitionProgress(TopicPartition partition, long startOffset, long endOffset) {
+            this.partition = partition;
+            this.startOffset = startOffset;
+            this.endOffset = endOffset;
+            this.position = new AtomicLong(startOffset);
+            this.state = startOffset < endOffset ? "PENDING" : "COMPLETED";
+        }
+
+        long total() {
+            return Math.max(0, endOffset - startOffset);
+        }
+
+        boolean isFinished() {
+            return !"PENDING".equals(state) && !"RUNNING".equals(state);
+        }
+
+        Map<String, Object> toStatus() {
+            Map<String, Object> status = new HashMap<>();
+            status.put("state", state);
+            status.put("start_offset", startOffset);
+            status.put("end_offset", endOffset);
+            status.put("position", position.get());
+            status.put("processed", processed.get());
+            status.put("failed", failed.get());
+            if (error != null) {
+                status.put("error", error);
+            }
+            return status;
+        }
+    }
+}
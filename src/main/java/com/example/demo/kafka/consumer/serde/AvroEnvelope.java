@@ -0,0 +1,158 @@
+package com.example.demo.kafka.consumer.serde;
+
+import java.io.IOException;
+
+import org.apache.avro.io.DatumReader;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.kafka.common.errors.SerializationException;
+
+import com.example.avro.AvroEventWrapper;
+import com.example.avro.AvroEventWrapperV2;
+import com.example.demo.kafka.factory.EventFactory;
+import com.example.demo.kafka.factory.id.EventId;
+
+/**
+ * Flyweight over the serialized bytes of an {@link AvroEventWrapper}, returned by
+ * {@link ReusingAvroDeserializer} when {@value ReusingAvroDeserializer#LAZY_ENVELOPE_CONFIG} is on.
+ * The routing fields are read in place on first access: eventId as a {@link Utf8Slice} view,
+ * eventType and entityType through the intern table. The full record is only decoded when
+ * {@link #materialize()} is called, typically by the handler.
+ */
+public final class AvroEnvelope {
+
+    private final byte[] data;
+    private final int bodyOffset;
+    private final int schemaId;
+    private final EnvelopeLayout layout;
+    private final DatumReader<Object> reader;
+    private final StringInternTable internTable;
+
+    private int[] offsets;
+    private int[] lengths;
+    private Object materialized;
+
+    AvroEnvelope(byte[] data, int bodyOffset, int schemaId, EnvelopeLayout layout,
+                 DatumReader<Object> reader, StringInternTable internTable) {
+        this.data = data;
+        this.bodyOffset = bodyOffset;
+        this.schemaId = schemaId;
+        this.layout = layout;
+        this.reader = reader;
+        this.internTable = internTable;
+    }
+
+    /**
+     * The full event for a record value that is either an envelope or an already decoded event;
+     * v2 events are returned as their v1 view.
+     */
+    public static AvroEventWrapper resolve(Object value) {
+        if (value instanceof AvroEnvelope envelope) {
+            return (AvroEventWrapper) envelope.materialize();
+        }
+        if (value instanceof AvroEventWrapperV2 event) {
+            return EventFactory.toV1(event);
+        }
+        return (AvroEventWrapper) value;
+    }
+
+    /**
+     * The decoded record value in the version it was written in, e.g. to republish it unchanged.
+     */
+    public static Object decoded(Object value) {
+        return value instanceof AvroEnvelope envelope ? envelope.materialize() : value;
+    }
+
+    /**
+     * The payload of a record value of either envelope version.
+     */
+    public static Object payloadOf(Object value) {
+        return value instanceof AvroEventWrapperV2 event ? event.getData() : resolve(value).getData();
+    }
+
+    /**
+     * The event type of a record value that is either an envelope or an already decoded event.
+     */
+    public static String eventTypeOf(Object value) {
+        if (value instanceof AvroEventWrapperV2 event) {
+            return EventFactory.eventTypeOf(event);
+        }
+        CharSequence eventType = value instanceof AvroEnvelope envelope ? envelope.getEventType()
+                : value instanceof AvroEventWrapper event ? event.getEventType() : null;
+        return eventType != null ? eventType.toString() : null;
+    }
+
+    /**
+     * The event id of a record value that is either an envelope or an already decoded event,
+     * without materializing an envelope.
+     */
+    public static String eventIdOf(Object value) {
+        if (value instanceof AvroEventWrapperV2 event) {
+            return event.getEventId() != null ? EventId.fromBytes(event.getEventId().bytes()).toString() : null;
+        }
+        CharSequence eventId = value instanceof AvroEnvelope envelope ? envelope.getEventId()
+                : value instanceof AvroEventWrapper event ? event.getEventId() : null;
+        return eventId != null ? eventId.toString() : null;
+    }
+
+    public int getSchemaId() {
+        return schemaId;
+    }
+
+    public CharSequence getEventId() {
+        scan();
+        int offset = offsets[EnvelopeLayout.EVENT_ID];
+        return offset < 0 ? null : new Utf8Slice(data, offset, lengths[EnvelopeLayout.EVENT_ID]);
+    }
+
+    public CharSequence getEventType() {
+        return interned(EnvelopeLayout.EVENT_TYPE);
+    }
+
+    public CharSequence getEntityType() {
+        return interned(EnvelopeLayout.ENTITY_TYPE);
+    }
+
+    public boolean isMaterialized() {
+        return materialized != null;
+    }
+
+    public Object materialize() {
+        if (materialized == null) {
+            try {
+                // Readers belong to the deserializer of one consumer and are not thread-safe
+                synchronized (reader) {
+                    materialized = reader.read(null,
+                            DecoderFactory.get().binaryDecoder(data, bodyOffset, data.length - bodyOffset, null));
+                }
+            } catch (IOException e) {
+                throw new SerializationException("Error materializing Avro envelope for schema id " + schemaId, e);
+            }
+        }
+        return materialized;
+    }
+
+    private String interned(int slot) {
+        scan();
+        int offset = offsets[slot];
+        if (offset < 0) {
+            return null;
+        }
+        return internTable.intern(data, offset, lengths[slot]);
+    }
+
+    private void scan() {
+        if (offsets == null) {
+            int[] scannedOffsets = new int[EnvelopeLayout.ROUTING_FIELDS.length];
+            int[] scannedLengths = new int[EnvelopeLayout.ROUTING_FIELDS.length];
+            layout.scan(data, bodyOffset, scannedOffsets, scannedLengths);
+            lengths = scannedLengths;
+            offsets = scannedOffsets;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "AvroEnvelope{schemaId=" + schemaId + ", eventId=" + getEventId()
+                + ", eventType=" + getEventType() + ", entityType=" + getEntityType() + "}";
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.demo.kafka.consumer.serde;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.springframework.kafka.support.mapping.Jackson2JavaTypeMapper.TypePrecedence;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import com.fasterxml.jackson.databind.JavaType;
+
+/**
+ * {@link JsonDeserializer} that parses heap {@link ByteBuffer} values straight from the fetched
+ * batch instead of copying each value into its own array first. The target type is resolved
+ * the same way as by the parent (type headers, then the configured default); anything it cannot
+ * resolve, and direct buffers, go through the parent's copying path.
+ */
+public class ByteBufferJsonDeserializer<T> extends JsonDeserializer<T> {
+
+    @Override
+    public T deserialize(String topic, Headers headers, ByteBuffer data) {
+        if (data == null) {
+            return null;
+        }
+        JavaType javaType = null;
+        if (headers != null && this.typeMapper.getTypePrecedence() == TypePrecedence.TYPE_ID) {
+            javaType = this.typeMapper.toJavaType(headers);
+        }
+        if (javaType == null) {
+            javaType = this.targetType;
+        }
+        if (javaType == null || !data.hasArray()) {
+            return super.deserialize(topic, headers, data);
+        }
+        if (headers != null) {
+            this.typeMapper.removeHeaders(headers);
+        }
+        try {
+            return this.objectMapper.readerFor(javaType)
+                    .readValue(data.array(), data.arrayOffset() + data.position(), data.remaining());
+        } catch (IOException e) {
+            throw new SerializationException("Can't deserialize data from topic [" + topic + "]", e);
+        }
+    }
+}
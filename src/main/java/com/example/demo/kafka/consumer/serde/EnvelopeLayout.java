@@ -0,0 +1,180 @@
+package com.example.demo.kafka.consumer.serde;
+
+import java.util.List;
+
+import org.apache.avro.Schema;
+
+/**
+ * Where the routing fields (eventId, eventType, entityType) sit in an envelope written with a
+ * given writer schema. Avro binary has no field offsets, so {@link #scan} walks the fields that
+ * precede them, skipping values without decoding them, and records the byte range of each
+ * routing field.
+ */
+final class EnvelopeLayout {
+
+    static final String[] ROUTING_FIELDS = {"eventId", "eventType", "entityType"};
+    static final int EVENT_ID = 0;
+    static final int EVENT_TYPE = 1;
+    static final int ENTITY_TYPE = 2;
+
+    private final Schema[] leadingFields;
+    private final int[] routingSlot;
+
+    private EnvelopeLayout(Schema[] leadingFields, int[] routingSlot) {
+        this.leadingFields = leadingFields;
+        this.routingSlot = routingSlot;
+    }
+
+    /**
+     * @return the layout, or null if the writer schema lacks a routing field or one is not a string
+     */
+    static EnvelopeLayout of(Schema writerSchema) {
+        if (writerSchema.getType() != Schema.Type.RECORD) {
+            return null;
+        }
+        List<Schema.Field> fields = writerSchema.getFields();
+        int last = -1;
+        for (String name : ROUTING_FIELDS) {
+            Schema.Field field = writerSchema.getField(name);
+            if (field == null || !isStringOrNullableString(field.schema())) {
+                return null;
+            }
+            last = Math.max(last, field.pos());
+        }
+        Schema[] leading = new Schema[last + 1];
+        int[] slots = new int[last + 1];
+        for (int i = 0; i <= last; i++) {
+            leading[i] = fields.get(i).schema();
+            slots[i] = -1;
+            for (int slot = 0; slot < ROUTING_FIELDS.length; slot++) {
+                if (ROUTING_FIELDS[slot].equals(fields.get(i).name())) {
+                    slots[i] = slot;
+                }
+            }
+        }
+        return new EnvelopeLayout(leading, slots);
+    }
+
+    /**
+     * Fills {@code offsets}/{@code lengths} (indexed by routing slot) for the record body starting
+     * at {@code start}; a null value is recorded with offset -1.
+     */
+    void scan(byte[] data, int start, int[] offsets, int[] lengths) {
+        Cursor cursor = new Cursor(data, start);
+        for (int i = 0; i < leadingFields.length; i++) {
+            Schema schema = leadingFields[i];
+            int slot = routingSlot[i];
+            if (slot < 0) {
+                cursor.skip(schema);
+                continue;
+            }
+            if (schema.getType() == Schema.Type.UNION) {
+                schema = schema.getTypes().get((int) cursor.readLong());
+            }
+            if (schema.getType() == Schema.Type.NULL) {
+                offsets[slot] = -1;
+                lengths[slot] = 0;
+            } else {
+                int length = (int) cursor.readLong();
+                offsets[slot] = cursor.pos;
+                lengths[slot] = length;
+                cursor.pos += length;
+            }
+        }
+    }
+
+    private static boolean isStringOrNullableString(Schema schema) {
+        if (schema.getType() == Schema.Type.STRING) {
+            return true;
+        }
+        if (schema.getType() != Schema.Type.UNION) {
+            return false;
+        }
+        return schema.getTypes().stream()
+                .allMatch(branch -> branch.getType() == Schema.Type.STRING || branch.getType() == Schema.Type.NULL);
+    }
+
+    private static final class Cursor {
+        private final byte[] buf;
+        private int pos;
+
+        Cursor(byte[] buf, int pos) {
+            this.buf = buf;
+            this.pos = pos;
+        }
+
+        // Zig-zag varint, as written for Avro int and long
+        long readLong() {
+            long raw = 0;
+            int shift = 0;
+            int b;
+            do {
+                b = buf[pos++] & 0xff;
+                raw |= (long) (b & 0x7f) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return (raw >>> 1) ^ -(raw & 1);
+        }
+
+        void skip(Schema schema) {
+            switch (schema.getType()) {
+                case NULL:
+                    break;
+                case BOOLEAN:
+                    pos += 1;
+                    break;
+                case INT:
+                case LONG:
+                case ENUM:
+                    readLong();
+                    break;
+                case FLOAT:
+                    pos += 4;
+                    break;
+                case DOUBLE:
+                    pos += 8;
+                    break;
+                case STRING:
+                case BYTES:
+                    pos += (int) readLong();
+                    break;
+                case FIXED:
+                    pos += schema.getFixedSize();
+                    break;
+                case UNION:
+                    skip(schema.getTypes().get((int) readLong()));
+                    break;
+                case RECORD:
+                    for (Schema.Field field : schema.getFields()) {
+                        skip(field.schema());
+                    }
+                    break;
+                case ARRAY:
+                    skipBlocks(schema.getElementType(), false);
+                    break;
+                case MAP:
+                    skipBlocks(schema.getValueType(), true);
+                    break;
+                default:
+                    throw new IllegalStateException("Unsupported Avro type: " + schema.getType());
+            }
+        }
+
+        private void skipBlocks(Schema itemSchema, boolean withKeys) {
+            long count;
+            while ((count = readLong()) != 0) {
+                if (count < 0) {
+                    // Negative count: the block size in bytes follows, so the block can be skipped whole
+                    pos += (int) readLong();
+                    continue;
+                }
+                for (long i = 0; i < count; i++) {
+                    if (withKeys) {
+                        pos += (int) readLong();
+                    }
+                    skip(itemSchema);
+                }
+            }
+        }
+    }
+}
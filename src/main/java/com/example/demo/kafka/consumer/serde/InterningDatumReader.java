@@ -0,0 +1,66 @@
+package com.example.demo.kafka.consumer.serde;
+
+import java.io.IOException;
+import java.util.Set;
+
+import org.apache.avro.Schema;
+import org.apache.avro.io.ResolvingDecoder;
+import org.apache.avro.specific.SpecificData;
+import org.apache.avro.specific.SpecificDatumReader;
+import org.apache.avro.util.Utf8;
+
+/**
+ * Specific datum reader that reads the configured string fields through a {@link StringInternTable}
+ * instead of allocating a new {@link Utf8} per record. Only fields whose schema is {@code string}
+ * or a union of {@code null} and {@code string} are interned; other fields are read as usual.
+ * Not thread-safe: one instance per consumer.
+ */
+class InterningDatumReader<T> extends SpecificDatumReader<T> {
+
+    private final Set<String> internFields;
+    private final StringInternTable internTable;
+    private final Utf8 scratch = new Utf8();
+
+    InterningDatumReader(Schema writer, Schema reader, Set<String> internFields, StringInternTable internTable) {
+        super(writer, reader, SpecificData.get());
+        this.internFields = internFields;
+        this.internTable = internTable;
+    }
+
+    @Override
+    protected void readField(Object record, Schema.Field field, Object oldDatum, ResolvingDecoder in, Object state)
+            throws IOException {
+        if (!internFields.contains(field.name()) || !isStringField(field.schema())) {
+            super.readField(record, field, oldDatum, in, state);
+            return;
+        }
+        Schema schema = field.schema();
+        if (schema.getType() == Schema.Type.UNION) {
+            schema = schema.getTypes().get(in.readIndex());
+        }
+        Object value;
+        if (schema.getType() == Schema.Type.NULL) {
+            in.readNull();
+            value = null;
+        } else {
+            Utf8 utf8 = in.readString(scratch);
+            value = internTable.intern(utf8.getBytes(), utf8.getByteLength());
+        }
+        getData().setField(record, field.name(), field.pos(), value, state);
+    }
+
+    private static boolean isStringField(Schema schema) {
+        if (schema.getType() == Schema.Type.STRING) {
+            return true;
+        }
+        if (schema.getType() != Schema.Type.UNION) {
+            return false;
+        }
+        for (Schema branch : schema.getTypes()) {
+            if (branch.getType() != Schema.Type.STRING && branch.getType() != Schema.Type.NULL) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.demo.kafka.consumer.serde;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.DatumReader;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.specific.SpecificData;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import com.example.avro.AvroEventWrapper;
+
+import io.confluent.kafka.schemaregistry.avro.AvroSchema;
+import io.confluent.kafka.schemaregistry.client.CachedSchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Avro value deserializer for the Confluent wire format (magic byte, 4-byte schema id, Avro
+ * binary) that avoids the per-record setup of {@code KafkaAvroDeserializer}: the binary decoder is
+ * reused, one datum reader is kept per writer schema id, and the low-cardinality string fields
+ * listed in {@value #INTERN_FIELDS_CONFIG} are taken from a shared {@link StringInternTable}.
+ * <p>
+ * With {@value #LAZY_ENVELOPE_CONFIG}, {@link AvroEventWrapper} values are returned as an
+ * {@link AvroEnvelope} flyweight over the record bytes and only decoded on demand.
+ * <p>
+ * Kafka creates one deserializer per consumer and calls it from that consumer's polling thread,
+ * so the per-instance state needs no synchronization. Decoded records are not reused: a poll
+ * deserializes all its records before the listener sees the first one, so every record keeps
+ * its own instance.
+ * <p>
+ * The consumer hands over values as {@link ByteBuffer} slices of the fetched batch; heap slices
+ * are decoded in place, without first copying the value into its own array. Lazy envelopes
+ * outlive the poll, so they copy just their record rather than pin the fetch buffer.
+ */
+@Slf4j
+public class ReusingAvroDeserializer implements Deserializer<Object> {
+
+    public static final String INTERN_FIELDS_CONFIG = "avro.intern.fields";
+    public static final String INTERN_TABLE_SIZE_CONFIG = "avro.intern.table.size";
+    public static final String LAZY_ENVELOPE_CONFIG = "avro.lazy.envelope";
+    private static final String SCHEMA_REGISTRY_URL_CONFIG = "schema.registry.url";
+    private static final String SPECIFIC_AVRO_READER_CONFIG = "specific.avro.reader";
+    private static final byte MAGIC_BYTE = 0x0;
+    private static final int HEADER_SIZE = 5;
+
+    private static volatile StringInternTable internTable;
+
+    private SchemaRegistryClient schemaRegistry;
+    private Set<String> internFields = Set.of();
+    private boolean specificReader = true;
+    private boolean lazyEnvelope = false;
+    private final Map<Integer, SchemaReader> readers = new HashMap<>();
+    private BinaryDecoder decoder;
+
+    public ReusingAvroDeserializer() {
+    }
+
+    /**
+     * Uses the given registry client instead of one created from {@code schema.registry.url},
+     * e.g. a {@code MockSchemaRegistryClient} in benchmarks.
+     */
+    public ReusingAvroDeserializer(SchemaRegistryClient schemaRegistry) {
+        this.schemaRegistry = schemaRegistry;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        if (schemaRegistry == null) {
+            Object urls = configs.get(SCHEMA_REGISTRY_URL_CONFIG);
+            if (urls == null) {
+                throw new IllegalArgumentException(SCHEMA_REGISTRY_URL_CONFIG + " must be set");
+            }
+            this.schemaRegistry = new CachedSchemaRegistryClient(
+                    Arrays.stream(urls.toString().split(",")).map(String::trim).toList(), 1000, configs);
+        }
+        Object fields = configs.get(INTERN_FIELDS_CONFIG);
+        if (fields != null) {
+            this.internFields = Arrays.stream(fields.toString().split(","))
+                    .map(String::trim)
+                    .filter(f -> !f.isEmpty())
+                    .collect(Collectors.toUnmodifiableSet());
+        }
+        Object specific = configs.get(SPECIFIC_AVRO_READER_CONFIG);
+        if (specific != null) {
+            this.specificReader = Boolean.parseBoolean(specific.toString());
+        }
+        Object lazy = configs.get(LAZY_ENVELOPE_CONFIG);
+        if (lazy != null) {
+            this.lazyEnvelope = Boolean.parseBoolean(lazy.toString());
+        }
+        Object tableSize = configs.get(INTERN_TABLE_SIZE_CONFIG);
+        internTable(tableSize != null ? Integer.parseInt(tableSize.toString()) : 4096);
+    }
+
+    @Override
+    public Object deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        return deserialize(topic, data, 0, data.length, false);
+    }
+
+    @Override
+    public Object deserialize(String topic, Headers headers, ByteBuffer data) {
+        if (data == null) {
+            return null;
+        }
+        if (!data.hasArray()) {
+            // Direct or read-only buffer: no backing array to decode from
+            byte[] copy = new byte[data.remaining()];
+            data.duplicate().get(copy);
+            return deserialize(topic, copy, 0, copy.length, false);
+        }
+        return deserialize(topic, data.array(), data.arrayOffset() + data.position(), data.remaining(), true);
+    }
+
+    private Object deserialize(String topic, byte[] data, int offset, int length, boolean shared) {
+        if (length < HEADER_SIZE || data[offset] != MAGIC_BYTE) {
+            throw new SerializationException("Unknown magic byte for Avro record on topic " + topic);
+        }
+        int schemaId = ((data[offset + 1] & 0xff) << 24) | ((data[offset + 2] & 0xff) << 16)
+                | ((data[offset + 3] & 0xff) << 8) | (data[offset + 4] & 0xff);
+        try {
+            SchemaReader reader = readers.get(schemaId);
+            if (reader == null) {
+                reader = createReader(schemaId);
+                readers.put(schemaId, reader);
+            }
+            if (reader.envelopeLayout() != null) {
+                byte[] record = shared || offset != 0 || length != data.length
+                        ? Arrays.copyOfRange(data, offset, offset + length) : data;
+                return new AvroEnvelope(record, HEADER_SIZE, schemaId, reader.envelopeLayout(), reader.datumReader(), internTable);
+            }
+            decoder = DecoderFactory.get().binaryDecoder(data, offset + HEADER_SIZE, length - HEADER_SIZE, decoder);
+            return reader.datumReader().read(null, decoder);
+        } catch (IOException | RuntimeException e) {
+            throw new SerializationException("Error deserializing Avro record for id " + schemaId + " on topic " + topic, e);
+        }
+    }
+
+    private SchemaReader createReader(int schemaId) {
+        Schema writerSchema;
+        try {
+            writerSchema = ((AvroSchema) schemaRegistry.getSchemaById(schemaId)).rawSchema();
+        } catch (Exception e) {
+            throw new SerializationException("Error retrieving Avro schema for id " + schemaId, e);
+        }
+        Class<?> specificClass = specificReader ? SpecificData.get().getClass(writerSchema) : null;
+        if (specificClass == null) {
+            log.debug("Reading schema id {} ({}) as GenericRecord", schemaId, writerSchema.getFullName());
+            return new SchemaReader(new GenericDatumReader<>(writerSchema), null);
+        }
+        Schema readerSchema = SpecificData.get().getSchema(specificClass);
+        EnvelopeLayout envelopeLayout = lazyEnvelope && AvroEventWrapper.class.equals(specificClass)
+                ? EnvelopeLayout.of(writerSchema) : null;
+        log.debug("Reading schema id {} as {} with interned fields {}, lazy={}",
+                schemaId, specificClass.getName(), internFields, envelopeLayout != null);
+        return new SchemaReader(new InterningDatumReader<>(writerSchema, readerSchema, internFields, internTable), envelopeLayout);
+    }
+
+    private static void internTable(int size) {
+        if (internTable == null) {
+            synchronized (ReusingAvroDeserializer.class) {
+                if (internTable == null) {
+                    internTable = new StringInternTable(size);
+                }
+            }
+        }
+    }
+
+    /**
+     * Hit/miss counts of the intern table shared by all instances, or an empty map if no
+     * instance has been configured yet.
+     */
+    public static Map<String, Object> getInternStatistics() {
+        StringInternTable table = internTable;
+        return table != null ? table.getStatistics() : Map.of();
+    }
+
+    private record SchemaReader(DatumReader<Object> datumReader, EnvelopeLayout envelopeLayout) {}
+
+    @Override
+    public void close() {
+        readers.clear();
+    }
+}
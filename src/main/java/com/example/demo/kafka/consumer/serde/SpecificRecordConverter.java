@@ -0,0 +1,301 @@
+package com.example.demo.kafka.consumer.serde;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+
+import org.apache.avro.Conversion;
+import org.apache.avro.Conversions;
+import org.apache.avro.LogicalType;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericContainer;
+import org.apache.avro.generic.GenericEnumSymbol;
+import org.apache.avro.generic.GenericFixed;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.specific.SpecificData;
+import org.apache.avro.specific.SpecificRecord;
+
+/**
+ * Converts {@link GenericRecord}s into generated {@link SpecificRecord} classes. The first
+ * conversion for a (writer schema, target class) pair compiles a copy plan: the constructor as a
+ * method handle, the writer/target field positions matched by name, one value converter per
+ * field (nested records, enums, fixed, collections, logical types) and the defaults of target
+ * fields the writer does not have. Later conversions only run the plan, copying through
+ * {@link SpecificRecord#put(int, Object)}.
+ */
+public final class SpecificRecordConverter {
+
+    private static final SpecificRecordConverter SHARED = new SpecificRecordConverter();
+
+    private final ClassValue<Map<Schema, RecordPlan>> plans = new ClassValue<>() {
+        @Override
+        protected Map<Schema, RecordPlan> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+    private final LongAdder conversions = new LongAdder();
+    private final LongAdder plansCompiled = new LongAdder();
+
+    public static SpecificRecordConverter shared() {
+        return SHARED;
+    }
+
+    /**
+     * Converts using the class generated for the record's own schema name.
+     */
+    public SpecificRecord convert(GenericRecord record) {
+        Class<?> target = SpecificData.get().getClass(record.getSchema());
+        if (target == null || !SpecificRecord.class.isAssignableFrom(target)) {
+            throw new IllegalArgumentException("No generated class for schema " + record.getSchema().getFullName());
+        }
+        return convert(record, target.asSubclass(SpecificRecord.class));
+    }
+
+    public <T extends SpecificRecord> T convert(GenericRecord record, Class<T> targetClass) {
+        if (record == null) {
+            return null;
+        }
+        if (targetClass.isInstance(record)) {
+            return targetClass.cast(record);
+        }
+        conversions.increment();
+        return targetClass.cast(plan(record.getSchema(), targetClass).convert(record));
+    }
+
+    private RecordPlan plan(Schema writerSchema, Class<?> targetClass) {
+        Map<Schema, RecordPlan> byWriter = plans.get(targetClass);
+        RecordPlan plan = byWriter.get(writerSchema);
+        if (plan == null) {
+            plan = byWriter.computeIfAbsent(writerSchema, schema -> compile(schema, targetClass));
+        }
+        return plan;
+    }
+
+    @SuppressWarnings("unchecked")
+    private RecordPlan compile(Schema writerSchema, Class<?> targetClass) {
+        SpecificData model = SpecificData.getForClass(targetClass);
+        Schema targetSchema = model.getSchema(targetClass);
+        MethodHandle constructor;
+        try {
+            constructor = MethodHandles.publicLookup()
+                    .findConstructor(targetClass, MethodType.methodType(void.class))
+                    .asType(MethodType.methodType(SpecificRecord.class));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("No public no-arg constructor on " + targetClass.getName(), e);
+        }
+
+        List<int[]> copies = new ArrayList<>();
+        List<UnaryOperator<Object>> converters = new ArrayList<>();
+        List<Schema.Field> defaults = new ArrayList<>();
+        for (Schema.Field targetField : targetSchema.getFields()) {
+            Schema.Field writerField = writerField(writerSchema, targetField);
+            if (writerField != null) {
+                copies.add(new int[] {writerField.pos(), targetField.pos()});
+                converters.add(valueConverter(writerField.schema(), targetField.schema(), model));
+            } else if (targetField.hasDefaultValue()) {
+                defaults.add(targetField);
+            }
+        }
+
+        int[] sourcePositions = new int[copies.size()];
+        int[] targetPositions = new int[copies.size()];
+        for (int i = 0; i < copies.size(); i++) {
+            sourcePositions[i] = copies.get(i)[0];
+            targetPositions[i] = copies.get(i)[1];
+        }
+        plansCompiled.increment();
+        return new RecordPlan(constructor, sourcePositions, targetPositions,
+                converters.toArray(new UnaryOperator[0]), defaults.toArray(new Schema.Field[0]), model);
+    }
+
+    private static Schema.Field writerField(Schema writerSchema, Schema.Field targetField) {
+        Schema.Field field = writerSchema.getField(targetField.name());
+        if (field != null) {
+            return field;
+        }
+        for (String alias : targetField.aliases()) {
+            field = writerSchema.getField(alias);
+            if (field != null) {
+                return field;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the converter for one value, or {@code null} when the generic value can be stored as is
+     */
+    private UnaryOperator<Object> valueConverter(Schema writer, Schema target, SpecificData model) {
+        LogicalType logicalType = target.getLogicalType();
+        Conversion<?> conversion = logicalType != null ? model.getConversionFor(logicalType) : null;
+        if (conversion != null) {
+            Class<?> convertedType = conversion.getConvertedType();
+            return value -> value == null || convertedType.isInstance(value) ? value
+                    : Conversions.convertToLogicalType(value, target, logicalType, conversion);
+        }
+        switch (target.getType()) {
+            case RECORD: {
+                Class<?> recordClass = model.getClass(target);
+                if (recordClass == null || !SpecificRecord.class.isAssignableFrom(recordClass)) {
+                    return null;
+                }
+                // Resolved on first use, so recursive schemas do not recurse while compiling
+                return value -> value instanceof GenericRecord generic && !recordClass.isInstance(value)
+                        ? plan(generic.getSchema(), recordClass).convert(generic) : value;
+            }
+            case ENUM: {
+                Class<?> enumClass = model.getClass(target);
+                if (enumClass == null || !enumClass.isEnum()) {
+                    return null;
+                }
+                Map<String, Object> constants = new HashMap<>();
+                for (Object constant : enumClass.getEnumConstants()) {
+                    constants.put(((Enum<?>) constant).name(), constant);
+                }
+                return value -> value instanceof GenericEnumSymbol<?> symbol ? constants.get(symbol.toString()) : value;
+            }
+            case FIXED: {
+                Class<?> fixedClass = model.getClass(target);
+                if (fixedClass == null || !GenericFixed.class.isAssignableFrom(fixedClass)) {
+                    return null;
+                }
+                return value -> value instanceof GenericFixed fixed && !fixedClass.isInstance(value)
+                        ? model.createFixed(null, fixed.bytes(), target) : value;
+            }
+            case ARRAY: {
+                Schema writerItems = writer.getType() == Schema.Type.ARRAY ? writer.getElementType() : target.getElementType();
+                UnaryOperator<Object> element = valueConverter(writerItems, target.getElementType(), model);
+                if (element == null) {
+                    return null;
+                }
+                return value -> {
+                    if (!(value instanceof List<?> list)) {
+                        return value;
+                    }
+                    List<Object> converted = new ArrayList<>(list.size());
+                    for (Object item : list) {
+                        converted.add(element.apply(item));
+                    }
+                    return converted;
+                };
+            }
+            case MAP: {
+                Schema writerValues = writer.getType() == Schema.Type.MAP ? writer.getValueType() : target.getValueType();
+                UnaryOperator<Object> entry = valueConverter(writerValues, target.getValueType(), model);
+                if (entry == null) {
+                    return null;
+                }
+                return value -> {
+                    if (!(value instanceof Map<?, ?> map)) {
+                        return value;
+                    }
+                    Map<Object, Object> converted = new LinkedHashMap<>(map.size() * 2);
+                    map.forEach((k, v) -> converted.put(k, entry.apply(v)));
+                    return converted;
+                };
+            }
+            case UNION:
+                return unionConverter(target, model);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Picks the target branch by the runtime value: named types by full name, collections by kind.
+     */
+    private UnaryOperator<Object> unionConverter(Schema target, SpecificData model) {
+        Map<String, UnaryOperator<Object>> named = new HashMap<>();
+        UnaryOperator<Object> array = null;
+        UnaryOperator<Object> map = null;
+        for (Schema branch : target.getTypes()) {
+            switch (branch.getType()) {
+                case RECORD, ENUM, FIXED -> {
+                    UnaryOperator<Object> converter = valueConverter(branch, branch, model);
+                    if (converter != null) {
+                        named.put(branch.getFullName(), converter);
+                    }
+                }
+                case ARRAY -> array = valueConverter(branch, branch, model);
+                case MAP -> map = valueConverter(branch, branch, model);
+                default -> { }
+            }
+        }
+        if (named.isEmpty() && array == null && map == null) {
+            return null;
+        }
+        UnaryOperator<Object> arrayBranch = array;
+        UnaryOperator<Object> mapBranch = map;
+        return value -> {
+            if (value instanceof GenericRecord || value instanceof GenericEnumSymbol<?> || value instanceof GenericFixed) {
+                UnaryOperator<Object> converter = named.get(((GenericContainer) value).getSchema().getFullName());
+                return converter != null ? converter.apply(value) : value;
+            }
+            if (arrayBranch != null && value instanceof List<?>) {
+                return arrayBranch.apply(value);
+            }
+            if (mapBranch != null && value instanceof Map<?, ?>) {
+                return mapBranch.apply(value);
+            }
+            return value;
+        };
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("conversions", conversions.sum());
+        stats.put("plans_compiled", plansCompiled.sum());
+        return stats;
+    }
+
+    private static final class RecordPlan {
+        private final MethodHandle constructor;
+        private final int[] sourcePositions;
+        private final int[] targetPositions;
+        private final UnaryOperator<Object>[] converters;
+        private final Schema.Field[] defaults;
+        private final SpecificData model;
+
+        RecordPlan(MethodHandle constructor, int[] sourcePositions, int[] targetPositions,
+                UnaryOperator<Object>[] converters, Schema.Field[] defaults, SpecificData model) {
+            this.constructor = constructor;
+            this.sourcePositions = sourcePositions;
+            this.targetPositions = targetPositions;
+            this.converters = converters;
+            this.defaults = defaults;
+            this.model = model;
+        }
+
+        SpecificRecord convert(GenericRecord source) {
+            SpecificRecord target = newInstance();
+            for (int i = 0; i < sourcePositions.length; i++) {
+                Object value = source.get(sourcePositions[i]);
+                UnaryOperator<Object> converter = converters[i];
+                target.put(targetPositions[i], converter != null ? converter.apply(value) : value);
+            }
+            for (Schema.Field field : defaults) {
+                // Defaults are shared instances, so mutable ones are copied per record
+                target.put(field.pos(), model.deepCopy(field.schema(), model.getDefaultValue(field)));
+            }
+            return target;
+        }
+
+        private SpecificRecord newInstance() {
+            try {
+                return (SpecificRecord) constructor.invokeExact();
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException("Could not instantiate " + constructor.type().returnType(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.demo.kafka.consumer.serde;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, lossy intern table for low-cardinality UTF-8 strings, looked up by their encoded bytes
+ * so a hit allocates nothing. Each slot holds one immutable entry; a colliding string replaces
+ * the previous one, which keeps memory bounded no matter how many distinct values are seen.
+ * Entries are immutable, so concurrent readers only ever see a complete entry or the previous one.
+ */
+public final class StringInternTable {
+
+    private static final int MAX_INTERNED_LENGTH = 64;
+
+    private final Entry[] slots;
+    private final int mask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public StringInternTable(int size) {
+        int capacity = Integer.highestOneBit(Math.max(16, size - 1) << 1);
+        this.slots = new Entry[capacity];
+        this.mask = capacity - 1;
+    }
+
+    public String intern(byte[] bytes, int length) {
+        return intern(bytes, 0, length);
+    }
+
+    public String intern(byte[] bytes, int offset, int length) {
+        if (length > MAX_INTERNED_LENGTH) {
+            misses.increment();
+            return new String(bytes, offset, length, StandardCharsets.UTF_8);
+        }
+        int hash = hash(bytes, offset, length);
+        int index = hash & mask;
+        Entry entry = slots[index];
+        if (entry != null && entry.hash == hash && entry.matches(bytes, offset, length)) {
+            hits.increment();
+            return entry.value;
+        }
+        misses.increment();
+        String value = new String(bytes, offset, length, StandardCharsets.UTF_8);
+        slots[index] = new Entry(hash, Arrays.copyOfRange(bytes, offset, offset + length), value);
+        return value;
+    }
+
+    private static int hash(byte[] bytes, int offset, int length) {
+        int h = 1;
+        for (int i = offset; i < offset + length; i++) {
+            h = 31 * h + bytes[i];
+        }
+        return h ^ (h >>> 16);
+    }
+
+    public Map<String, Object> getStatistics() {
+        int used = 0;
+        for (Entry entry : slots) {
+            if (entry != null) {
+                used++;
+            }
+        }
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("capacity", slots.length);
+        stats.put("used_slots", used);
+        stats.put("hits", hitCount);
+        stats.put("misses", total - hitCount);
+        stats.put("hit_rate_percent", total > 0 ? hitCount * 100.0 / total : 0.0);
+        return stats;
+    }
+
+    private static final class Entry {
+        private final int hash;
+        private final byte[] bytes;
+        private final String value;
+
+        Entry(int hash, byte[] bytes, String value) {
+            this.hash = hash;
+            this.bytes = bytes;
+            this.value = value;
+        }
+
+        boolean matches(byte[] other, int offset, int length) {
+            return bytes.length == length && Arrays.equals(bytes, 0, length, other, offset, offset + length);
+        }
+    }
+}
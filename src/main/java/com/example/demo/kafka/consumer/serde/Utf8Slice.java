@@ -0,0 +1,99 @@
+package com.example.demo.kafka.consumer.serde;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Read-only {@link CharSequence} view over UTF-8 bytes inside a larger buffer. ASCII content is
+ * served straight from the bytes; anything else is decoded once on first character access.
+ */
+public final class Utf8Slice implements CharSequence {
+
+    private final byte[] bytes;
+    private final int offset;
+    private final int length;
+    private final boolean ascii;
+    private String decoded;
+
+    Utf8Slice(byte[] bytes, int offset, int length) {
+        this.bytes = bytes;
+        this.offset = offset;
+        this.length = length;
+        this.ascii = isAscii(bytes, offset, length);
+    }
+
+    @Override
+    public int length() {
+        return ascii ? length : toString().length();
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (ascii) {
+            if (index < 0 || index >= length) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return (char) bytes[offset + index];
+        }
+        return toString().charAt(index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return toString().subSequence(start, end);
+    }
+
+    /**
+     * Compares with a string without decoding the bytes when both are ASCII.
+     */
+    public boolean contentEquals(String other) {
+        if (other == null) {
+            return false;
+        }
+        if (!ascii) {
+            return toString().equals(other);
+        }
+        if (other.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (other.charAt(i) != (char) bytes[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Utf8Slice other)) {
+            return false;
+        }
+        return Arrays.equals(bytes, offset, offset + length, other.bytes, other.offset, other.offset + other.length);
+    }
+
+    @Override
+    public int hashCode() {
+        return toString().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        if (decoded == null) {
+            decoded = new String(bytes, offset, length, StandardCharsets.UTF_8);
+        }
+        return decoded;
+    }
+
+    private static boolean isAscii(byte[] bytes, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            if (bytes[i] < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,356 @@
+package com.example.demo.kafka.consumer.store;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.kafka.config.GroupCommitConfig;
+import com.example.demo.kafka.entity.EventProcessingRecord;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Single writer shared by all consumer threads. Processing records and Kafka acknowledgments are
+ * queued in submission order and flushed as a group: every row of the group is written with one
+ * multi-row insert (one commit), and only then are the group's acknowledgments released, so an
+ * offset is never committed before the rows submitted ahead of it are durable. A group is
+ * flushed once it reaches the batch size or its oldest entry has waited for the maximum delay.
+ * <p>
+ * A row that cannot be written stays queued, together with every later acknowledgment of its
+ * partition, and is retried after a backoff; other partitions are not held back. The writer
+ * runs after the listener's transaction, see {@link GroupCommitConfig#isEnabled()}.
+ */
+@Slf4j
+@Component
+public class GroupCommitWriter {
+
+    private static final String INSERT_PREFIX = "INSERT INTO event_processing_record "
+            + "(message_id, topic, `offset`, partition_number, operation, entity_type, processed_timestamp) VALUES ";
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final GroupCommitConfig config;
+
+    private final ReentrantLock queueLock = new ReentrantLock();
+    private final Condition groupReady = queueLock.newCondition();
+    private final Condition spaceAvailable = queueLock.newCondition();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private List<Entry> pending = new ArrayList<>();
+    private int pendingRows = 0;
+    private long oldestPendingNanos = 0;
+    private volatile int batchSize;
+    private volatile long maxDelayMs;
+    private volatile boolean running = true;
+    private Thread flusher;
+
+    private final AtomicLong groups = new AtomicLong(0);
+    private final AtomicLong rowsWritten = new AtomicLong(0);
+    private final AtomicLong acksReleased = new AtomicLong(0);
+    private final AtomicLong fallbackFlushes = new AtomicLong(0);
+    private final AtomicLong failedRowWrites = new AtomicLong(0);
+
+    public GroupCommitWriter(JdbcTemplate jdbcTemplate, GroupCommitConfig config) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.config = config;
+        this.batchSize = config.getMaxBatchSize();
+        this.maxDelayMs = config.getMaxDelayMs();
+    }
+
+    @PostConstruct
+    public void start() {
+        flusher = new Thread(this::runFlusher, "processing-record-group-commit");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Changes the group bounds, e.g. larger groups while catching up on a backlog.
+     */
+    public void setGroupBounds(int batchSize, long maxDelayMs) {
+        this.batchSize = Math.max(1, batchSize);
+        this.maxDelayMs = Math.max(1, maxDelayMs);
+        log.info("Group commit bounds set to batchSize={}, maxDelayMs={}", this.batchSize, this.maxDelayMs);
+    }
+
+    public void submit(EventProcessingRecord processingRecord) {
+        enqueue(new Entry(processingRecord, null,
+                new TopicPartition(processingRecord.getTopic(), processingRecord.getPartitionNumber())));
+    }
+
+    /**
+     * Releases the acknowledgment of a record of the partition once every row submitted before it
+     * has been written.
+     */
+    public void acknowledge(TopicPartition partition, Acknowledgment acknowledgment) {
+        enqueue(new Entry(null, acknowledgment, partition));
+    }
+
+    private void enqueue(Entry entry) {
+        queueLock.lock();
+        try {
+            while (pending.size() >= config.getMaxPending() && running) {
+                spaceAvailable.awaitUninterruptibly();
+            }
+            if (pending.isEmpty()) {
+                oldestPendingNanos = System.nanoTime();
+            }
+            pending.add(entry);
+            if (entry.row() != null && ++pendingRows >= batchSize) {
+                groupReady.signal();
+            }
+        } finally {
+            queueLock.unlock();
+        }
+    }
+
+    /**
+     * Writes everything queued so far on the calling thread, e.g. before partitions are revoked.
+     * @return the number of entries left queued because a row of their partition failed
+     */
+    public int flush() {
+        flushLock.lock();
+        try {
+            List<Entry> group = takeGroup();
+            return group.isEmpty() ? 0 : write(group);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Drops the queued entries of partitions this instance no longer owns; called after a flush
+     * when partitions are revoked. Their records are re-delivered to the new owner.
+     * @return the rows dropped
+     */
+    public List<EventProcessingRecord> discard(Collection<TopicPartition> revoked) {
+        List<EventProcessingRecord> dropped = new ArrayList<>();
+        queueLock.lock();
+        try {
+            pending.removeIf(entry -> {
+                boolean drop = revoked.contains(entry.partition());
+                if (drop && entry.row() != null) {
+                    pendingRows--;
+                    dropped.add(entry.row());
+                }
+                return drop;
+            });
+            spaceAvailable.signalAll();
+            return dropped;
+        } finally {
+            queueLock.unlock();
+        }
+    }
+
+    private void runFlusher() {
+        while (running) {
+            try {
+                awaitGroup();
+                if (flush() > 0) {
+                    Thread.sleep(config.getRetryBackoffMs());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("Group commit flusher error", e);
+            }
+        }
+        flush();
+    }
+
+    private void awaitGroup() throws InterruptedException {
+        queueLock.lock();
+        try {
+            while (running) {
+                if (pendingRows >= batchSize) {
+                    return;
+                }
+                if (!pending.isEmpty()) {
+                    long waitedNanos = System.nanoTime() - oldestPendingNanos;
+                    long remainingNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMs) - waitedNanos;
+                    if (remainingNanos <= 0) {
+                        return;
+                    }
+                    groupReady.awaitNanos(remainingNanos);
+                } else {
+                    groupReady.await();
+                }
+            }
+        } finally {
+            queueLock.unlock();
+        }
+    }
+
+    private List<Entry> takeGroup() {
+        queueLock.lock();
+        try {
+            List<Entry> group = pending;
+            pending = new ArrayList<>(batchSize * 2);
+            pendingRows = 0;
+            spaceAvailable.signalAll();
+            return group;
+        } finally {
+            queueLock.unlock();
+        }
+    }
+
+    private int write(List<Entry> group) {
+        List<EventProcessingRecord> rows = new ArrayList<>(group.size());
+        for (Entry entry : group) {
+            if (entry.row() != null) {
+                rows.add(entry.row());
+            }
+        }
+        Set<EventProcessingRecord> failed = rows.isEmpty() ? Set.of() : insertRows(rows);
+
+        // From a partition's first failed row on, its entries stay queued so no later offset of it is
+        // committed; rows written after the failed one are not written again
+        Set<TopicPartition> blocked = new HashSet<>();
+        List<Entry> retained = new ArrayList<>();
+        for (Entry entry : group) {
+            if (entry.row() != null && failed.contains(entry.row())) {
+                blocked.add(entry.partition());
+                retained.add(entry);
+            } else if (blocked.contains(entry.partition())) {
+                if (entry.acknowledgment() != null) {
+                    retained.add(entry);
+                }
+            } else if (entry.acknowledgment() != null) {
+                entry.acknowledgment().acknowledge();
+                acksReleased.incrementAndGet();
+            }
+        }
+        if (!retained.isEmpty()) {
+            requeue(retained);
+            log.warn("{} processing records could not be written; holding acknowledgments of {} and retrying in {} ms",
+                    failed.size(), blocked, config.getRetryBackoffMs());
+        }
+        groups.incrementAndGet();
+        return retained.size();
+    }
+
+    // Ahead of everything queued meanwhile, which is newer
+    private void requeue(List<Entry> retained) {
+        queueLock.lock();
+        try {
+            if (pending.isEmpty()) {
+                oldestPendingNanos = System.nanoTime();
+            }
+            pending.addAll(0, retained);
+            for (Entry entry : retained) {
+                if (entry.row() != null) {
+                    pendingRows++;
+                }
+            }
+        } finally {
+            queueLock.unlock();
+        }
+    }
+
+    /**
+     * @return the rows that could not be written
+     */
+    private Set<EventProcessingRecord> insertRows(List<EventProcessingRecord> rows) {
+        for (int attempt = 1; attempt <= config.getFlushAttempts(); attempt++) {
+            try {
+                insertMultiRow(rows);
+                rowsWritten.addAndGet(rows.size());
+                return Set.of();
+            } catch (Exception e) {
+                log.warn("Group insert of {} processing records failed (attempt {}/{}): {}",
+                        rows.size(), attempt, config.getFlushAttempts(), e.getMessage());
+            }
+        }
+        // Keep as many rows as possible, so only the partitions of the failing rows are held back
+        fallbackFlushes.incrementAndGet();
+        Set<EventProcessingRecord> failed = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (EventProcessingRecord row : rows) {
+            try {
+                insertMultiRow(List.of(row));
+                rowsWritten.incrementAndGet();
+            } catch (Exception e) {
+                failed.add(row);
+                failedRowWrites.incrementAndGet();
+                log.error("Failed to write processing record: MessageID={}, Topic={}, Offset={}",
+                        row.getMessageId(), row.getTopic(), row.getOffset(), e);
+            }
+        }
+        return failed;
+    }
+
+    private void insertMultiRow(List<EventProcessingRecord> rows) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + rows.size() * (ROW_PLACEHOLDERS.length() + 1));
+        sql.append(INSERT_PREFIX);
+        Object[] args = new Object[rows.size() * 7];
+        int i = 0;
+        for (EventProcessingRecord row : rows) {
+            if (i > 0) {
+                sql.append(',');
+            }
+            sql.append(ROW_PLACEHOLDERS);
+            args[i++] = row.getMessageId();
+            args[i++] = row.getTopic();
+            args[i++] = row.getOffset();
+            args[i++] = row.getPartitionNumber();
+            args[i++] = row.getOperation();
+            args[i++] = row.getEntityType();
+            args[i++] = row.getProcessedTimestamp();
+        }
+        jdbcTemplate.update(sql.toString(), args);
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        queueLock.lock();
+        try {
+            stats.put("pending_entries", pending.size());
+            stats.put("pending_rows", pendingRows);
+        } finally {
+            queueLock.unlock();
+        }
+        stats.put("batch_size", batchSize);
+        stats.put("max_delay_ms", maxDelayMs);
+        stats.put("groups", groups.get());
+        stats.put("rows_written", rowsWritten.get());
+        stats.put("acks_released", acksReleased.get());
+        stats.put("fallback_flushes", fallbackFlushes.get());
+        stats.put("failed_row_writes", failedRowWrites.get());
+        long groupCount = groups.get();
+        stats.put("average_rows_per_group", groupCount > 0 ? (double) rowsWritten.get() / groupCount : 0.0);
+        return stats;
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        queueLock.lock();
+        try {
+            running = false;
+            groupReady.signalAll();
+            spaceAvailable.signalAll();
+        } finally {
+            queueLock.unlock();
+        }
+        if (flusher != null) {
+            flusher.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    private record Entry(EventProcessingRecord row, Acknowledgment acknowledgment, TopicPartition partition) {}
+}
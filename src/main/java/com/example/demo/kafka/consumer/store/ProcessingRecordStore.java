@@ -0,0 +1,163 @@
+package com.example.demo.kafka.consumer.store;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.kafka.config.CatchUpConfig;
+import com.example.demo.kafka.config.GroupCommitConfig;
+import com.example.demo.kafka.consumer.rebalance.PartitionScopedState;
+import com.example.demo.kafka.entity.EventProcessingRecord;
+import com.example.demo.kafka.repo.EventProcessingRecordRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Dedupe checks, persistence of {@link EventProcessingRecord}s and acknowledgments for the consumer.
+ * <p>
+ * Records and acknowledgments are handed to the {@link GroupCommitWriter}, so offsets are only
+ * committed after the rows ahead of them are written. With group commit disabled, records are
+ * saved inside the listener's transaction and acknowledged directly.
+ * <p>
+ * Duplicates are detected by message id: against the ids handed to the writer most recently,
+ * whose rows may not be written yet, and then with one lookup per message. In batching mode (used
+ * while catching up on a backlog) records at or below a per-partition offset watermark, loaded
+ * with one query per partition, are known duplicates without a lookup; records above it are
+ * still checked by id, since a re-published event (e.g. a producer retry) arrives at a new
+ * offset. The writer then uses the larger catch-up group bounds.
+ */
+@Slf4j
+@Component
+public class ProcessingRecordStore implements PartitionScopedState {
+
+    private final EventProcessingRecordRepository recordRepository;
+    private final GroupCommitWriter groupCommitWriter;
+    private final CatchUpConfig catchUpConfig;
+    private final GroupCommitConfig groupCommitConfig;
+
+    private final Map<TopicPartition, Long> watermarks = new ConcurrentHashMap<>();
+    // Ids of the last max-pending rows handed to the writer: at least every row not written yet
+    private final Map<String, Boolean> recentIds;
+    private volatile boolean batching = false;
+
+    private final AtomicLong watermarkQueries = new AtomicLong(0);
+    private final AtomicLong idQueries = new AtomicLong(0);
+
+    public ProcessingRecordStore(EventProcessingRecordRepository recordRepository, GroupCommitWriter groupCommitWriter,
+                                 CatchUpConfig catchUpConfig, GroupCommitConfig groupCommitConfig) {
+        this.recordRepository = recordRepository;
+        this.groupCommitWriter = groupCommitWriter;
+        this.catchUpConfig = catchUpConfig;
+        this.groupCommitConfig = groupCommitConfig;
+        int recentCapacity = Math.max(1, groupCommitConfig.getMaxPending());
+        this.recentIds = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > recentCapacity;
+            }
+        };
+    }
+
+    public boolean isBatching() {
+        return batching;
+    }
+
+    public synchronized void setBatching(boolean batching) {
+        if (this.batching == batching) {
+            return;
+        }
+        this.batching = batching;
+        if (batching) {
+            groupCommitWriter.setGroupBounds(catchUpConfig.getPersistBatchSize(), catchUpConfig.getPersistFlushIntervalMs());
+        } else {
+            groupCommitWriter.flush();
+            groupCommitWriter.setGroupBounds(groupCommitConfig.getMaxBatchSize(), groupCommitConfig.getMaxDelayMs());
+        }
+        // Watermarks are only maintained while batching; start from the database each time
+        watermarks.clear();
+        log.info("Processing record store switched to {} mode", batching ? "batching" : "live");
+    }
+
+    public boolean isDuplicate(String messageId, ConsumerRecord<?, ?> record) {
+        if (batching) {
+            TopicPartition tp = new TopicPartition(record.topic(), record.partition());
+            Long watermark = watermarks.computeIfAbsent(tp, this::loadWatermark);
+            if (record.offset() <= watermark) {
+                return true;
+            }
+        }
+        synchronized (recentIds) {
+            if (recentIds.containsKey(messageId)) {
+                return true;
+            }
+        }
+        idQueries.incrementAndGet();
+        return recordRepository.existsByMessageId(messageId);
+    }
+
+    public void save(EventProcessingRecord processingRecord) {
+        if (batching) {
+            watermarks.merge(new TopicPartition(processingRecord.getTopic(), processingRecord.getPartitionNumber()),
+                    processingRecord.getOffset(), Math::max);
+        }
+        if (groupCommitConfig.isEnabled()) {
+            synchronized (recentIds) {
+                recentIds.put(processingRecord.getMessageId(), Boolean.TRUE);
+            }
+            groupCommitWriter.submit(processingRecord);
+        } else {
+            recordRepository.save(processingRecord);
+        }
+    }
+
+    /**
+     * Acknowledges the record once everything saved before it has been written.
+     */
+    public void acknowledge(ConsumerRecord<?, ?> record, Acknowledgment acknowledgment) {
+        if (groupCommitConfig.isEnabled()) {
+            groupCommitWriter.acknowledge(new TopicPartition(record.topic(), record.partition()), acknowledgment);
+        } else {
+            acknowledgment.acknowledge();
+        }
+    }
+
+    /**
+     * Pending rows are written and their acknowledgments released before the offsets of the
+     * revoked partitions are committed; entries of revoked partitions whose rows could not be
+     * written are dropped, the new owner processes them again. Watermarks are dropped since the
+     * new owner will advance them.
+     */
+    @Override
+    public void flushPartitions(Collection<TopicPartition> revoked) {
+        if (groupCommitWriter.flush() > 0) {
+            // Never written: if the partition comes back, its records must not look like duplicates
+            synchronized (recentIds) {
+                groupCommitWriter.discard(revoked).forEach(row -> recentIds.remove(row.getMessageId()));
+            }
+        }
+        watermarks.keySet().removeAll(revoked);
+    }
+
+    private long loadWatermark(TopicPartition tp) {
+        watermarkQueries.incrementAndGet();
+        Long max = recordRepository.findMaxOffset(tp.topic(), tp.partition());
+        return max != null ? max : -1L;
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>(groupCommitWriter.getStatistics());
+        stats.put("batching", batching);
+        stats.put("watermark_queries", watermarkQueries.get());
+        stats.put("id_queries", idQueries.get());
+        stats.put("tracked_partitions", watermarks.size());
+        return stats;
+    }
+}
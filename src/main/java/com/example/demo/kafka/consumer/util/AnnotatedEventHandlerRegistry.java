@@ -0,0 +1,239 @@
+package com.example.demo.kafka.consumer.util;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.stereotype.Component;
+
+import com.example.avro.AvroEventWrapper;
+import com.example.common.JsonUtil;
+import com.example.demo.kafka.config.KafkaEventFormat;
+import com.example.demo.kafka.consumer.handler.annotation.EventHandler;
+import com.example.demo.kafka.consumer.handler.annotation.EventOperation;
+import com.example.demo.kafka.consumer.serde.AvroEnvelope;
+import com.example.demo.kafka.factory.EventWrapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Discovers {@link EventHandler} methods on beans at startup and binds each one to a
+ * {@link BiConsumer} generated with {@link LambdaMetafactory}, so a dispatch is a lookup in a
+ * per-entity array indexed by (format, operation) followed by a direct call of the handler
+ * method, without reflection or casts in between.
+ */
+@Slf4j
+@Component
+public class AnnotatedEventHandlerRegistry implements BeanPostProcessor {
+
+    private static final int OPERATION_COUNT = EventOperation.values().length;
+    private static final int SLOT_COUNT = KafkaEventFormat.values().length * OPERATION_COUNT;
+
+    private final Map<String, HandlerInvoker[]> invokersByEntity = new ConcurrentHashMap<>();
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        Class<?> targetClass = AopUtils.getTargetClass(bean);
+        if (!AnnotationUtils.isCandidateClass(targetClass, EventHandler.class)) {
+            return bean;
+        }
+        Map<Method, EventHandler> handlerMethods = MethodIntrospector.selectMethods(targetClass,
+                (MethodIntrospector.MetadataLookup<EventHandler>) method ->
+                        AnnotatedElementUtils.findMergedAnnotation(method, EventHandler.class));
+        handlerMethods.forEach((method, annotation) -> register(bean, beanName, method, annotation));
+        return bean;
+    }
+
+    private void register(Object bean, String beanName, Method method, EventHandler annotation) {
+        if (method.getParameterCount() != 1 || method.getParameterTypes()[0].isPrimitive()) {
+            throw new IllegalStateException("@EventHandler method must take a single non-primitive argument: " + method);
+        }
+        if (AopUtils.isJdkDynamicProxy(bean)) {
+            throw new IllegalStateException("@EventHandler methods are not supported on JDK proxy bean '" + beanName
+                    + "'; use class-based proxies");
+        }
+        Class<?> parameterType = method.getParameterTypes()[0];
+        BiConsumer<Object, Object> call = bind(method);
+        String entity = annotation.entity().toLowerCase();
+        HandlerInvoker[] slots = invokersByEntity.computeIfAbsent(entity, k -> new HandlerInvoker[SLOT_COUNT]);
+        for (KafkaEventFormat format : annotation.format()) {
+            ArgumentKind kind = ArgumentKind.resolve(format, parameterType);
+            for (EventOperation operation : annotation.operation()) {
+                int slot = slot(format, operation);
+                if (slots[slot] != null) {
+                    throw new IllegalStateException("Duplicate @EventHandler for entity=" + entity + ", operation="
+                            + operation + ", format=" + format + ": " + slots[slot].method + " and " + method);
+                }
+                slots[slot] = new HandlerInvoker(bean, call, kind, parameterType, method);
+            }
+        }
+        log.info("Registered @EventHandler {}#{} for entity={}, operations={}, formats={}", beanName, method.getName(),
+                entity, Arrays.toString(annotation.operation()), Arrays.toString(annotation.format()));
+    }
+
+    /**
+     * Invokes the handler registered for the entity type (lower case, as in topic names),
+     * operation and format.
+     * @return false if no handler is registered, so the caller can fall back to other handlers
+     */
+    public boolean dispatch(String entityType, CharSequence eventType, KafkaEventFormat format, Object value) {
+        HandlerInvoker[] slots = invokersByEntity.get(entityType);
+        if (slots == null) {
+            return false;
+        }
+        EventOperation operation = EventOperation.of(eventType);
+        if (operation == null) {
+            return false;
+        }
+        HandlerInvoker invoker = slots[slot(format, operation)];
+        if (invoker == null) {
+            return false;
+        }
+        invoker.invoke(value);
+        return true;
+    }
+
+    public Map<String, Object> getRegisteredHandlers() {
+        Map<String, Object> registered = new HashMap<>();
+        invokersByEntity.forEach((entity, slots) -> {
+            Map<String, String> methods = new HashMap<>();
+            for (KafkaEventFormat format : KafkaEventFormat.values()) {
+                for (EventOperation operation : EventOperation.values()) {
+                    HandlerInvoker invoker = slots[slot(format, operation)];
+                    if (invoker != null) {
+                        methods.put(format + ":" + operation, invoker.method.getDeclaringClass().getSimpleName()
+                                + "#" + invoker.method.getName());
+                    }
+                }
+            }
+            registered.put(entity, methods);
+        });
+        return registered;
+    }
+
+    private static int slot(KafkaEventFormat format, EventOperation operation) {
+        return format.ordinal() * OPERATION_COUNT + operation.ordinal();
+    }
+
+    /**
+     * Binds {@code (bean, argument) -> bean.method(argument)} through LambdaMetafactory; falls
+     * back to a method handle when the declaring class cannot be looked up privately (e.g. it
+     * was loaded by another class loader).
+     */
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> bind(Method method) {
+        Class<?> declaringClass = method.getDeclaringClass();
+        MethodHandle handle;
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(declaringClass, MethodHandles.lookup());
+            handle = lookup.unreflect(method);
+            CallSite site = LambdaMetafactory.metafactory(lookup, "accept",
+                    MethodType.methodType(BiConsumer.class),
+                    MethodType.methodType(void.class, Object.class, Object.class),
+                    handle,
+                    MethodType.methodType(void.class, declaringClass, method.getParameterTypes()[0]));
+            return (BiConsumer<Object, Object>) site.getTarget().invokeExact();
+        } catch (Throwable e) {
+            log.warn("Falling back to method handle dispatch for {}: {}", method, e.getMessage());
+        }
+        try {
+            method.setAccessible(true);
+            MethodHandle fallback = MethodHandles.lookup().unreflect(method)
+                    .asType(MethodType.methodType(void.class, Object.class, Object.class));
+            return (bean, argument) -> {
+                try {
+                    fallback.invokeExact(bean, argument);
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new IllegalStateException("Event handler " + method + " failed", e);
+                }
+            };
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot access @EventHandler method " + method, e);
+        }
+    }
+
+    /**
+     * How the record value is turned into the handler argument, fixed per (method, format) at startup.
+     */
+    enum ArgumentKind {
+        AVRO_ENVELOPE, AVRO_EVENT, AVRO_PAYLOAD, EVENT_WRAPPER, RAW_DATA, MAPPED_DATA;
+
+        static ArgumentKind resolve(KafkaEventFormat format, Class<?> parameterType) {
+            if (format == KafkaEventFormat.AVRO) {
+                if (parameterType == AvroEnvelope.class) {
+                    return AVRO_ENVELOPE;
+                }
+                return parameterType.isAssignableFrom(AvroEventWrapper.class) ? AVRO_EVENT : AVRO_PAYLOAD;
+            }
+            if (parameterType.isAssignableFrom(EventWrapper.class)) {
+                return EVENT_WRAPPER;
+            }
+            return parameterType == String.class ? RAW_DATA : MAPPED_DATA;
+        }
+    }
+
+    private static final class HandlerInvoker {
+        private final Object bean;
+        private final BiConsumer<Object, Object> call;
+        private final ArgumentKind kind;
+        private final Class<?> parameterType;
+        private final Method method;
+
+        HandlerInvoker(Object bean, BiConsumer<Object, Object> call, ArgumentKind kind, Class<?> parameterType, Method method) {
+            this.bean = bean;
+            this.call = call;
+            this.kind = kind;
+            this.parameterType = parameterType;
+            this.method = method;
+        }
+
+        void invoke(Object value) {
+            call.accept(bean, argument(value));
+        }
+
+        private Object argument(Object value) {
+            switch (kind) {
+                case AVRO_ENVELOPE:
+                    if (!(value instanceof AvroEnvelope)) {
+                        throw new IllegalStateException(method + " expects an AvroEnvelope; enable kafka.consumer.avro.lazy-envelope (v1 envelopes only)");
+                    }
+                    return value;
+                case AVRO_EVENT:
+                    return AvroEnvelope.resolve(value);
+                case AVRO_PAYLOAD:
+                    Object payload = AvroEnvelope.payloadOf(value);
+                    if (payload != null && !parameterType.isInstance(payload)) {
+                        throw new IllegalArgumentException("Payload " + payload.getClass().getSimpleName()
+                                + " does not match " + method);
+                    }
+                    return payload;
+                case EVENT_WRAPPER:
+                    return value;
+                case RAW_DATA:
+                    Object raw = ((EventWrapper<?>) value).getData();
+                    return raw == null || raw instanceof String ? raw : JsonUtil.toJson(raw);
+                default:
+                    Object data = ((EventWrapper<?>) value).getData();
+                    if (data == null || parameterType.isInstance(data)) {
+                        return data;
+                    }
+                    return JsonUtil.fromJson(data instanceof String json ? json : JsonUtil.toJson(data), parameterType);
+            }
+        }
+    }
+}
@@ -4,19 +4,36 @@ import java.util.Optional;
 import java.util.function.Function;
 
 import org.apache.avro.specific.SpecificRecord;
+import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.retry.annotation.*;
 
 import org.springframework.stereotype.Service;
 
+import com.example.demo.kafka.config.EnvelopeConfig;
 import com.example.demo.kafka.config.KafkaEventFormat;
-import com.example.demo.kafka.config.KafkaTopicsProvider;
+import com.example.demo.kafka.consumer.backpressure.JdbcPoolBackpressureController;
+import com.example.demo.kafka.consumer.catchup.CatchUpModeController;
+import com.example.demo.kafka.consumer.concurrency.ElasticConcurrencyController;
+import com.example.demo.kafka.consumer.deadline.DeadlineBudgetExecutor;
+import com.example.demo.kafka.consumer.deadline.ParkFailedException;
+import com.example.demo.kafka.consumer.gate.DisabledEntityGate;
+import com.example.demo.kafka.consumer.gate.RewoundPartitions;
 import com.example.demo.kafka.consumer.handler.generic.SimpleKafkaEventHandler;
+import com.example.demo.kafka.consumer.serde.AvroEnvelope;
+import com.example.demo.kafka.consumer.store.ProcessingRecordStore;
 import com.example.demo.kafka.entity.EventProcessingRecord;
+import com.example.demo.kafka.factory.EventHeaders;
 import com.example.demo.kafka.factory.EventWrapper;
-import com.example.demo.kafka.repo.EventProcessingRecordRepository;
+import com.example.demo.kafka.factory.id.EventId;
+import com.example.demo.kafka.fingerprint.FingerprintTracker;
+import com.example.demo.kafka.fingerprint.PayloadFingerprint;
+import com.example.demo.kafka.metrics.KafkaMetricsService;
 
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
@@ -27,109 +44,261 @@ import lombok.extern.slf4j.Slf4j;
 @Service
 public class KafkaEventConsumer {
 
-    private final EventProcessingRecordRepository recordRepository;
+    public static final String AVRO_LISTENER_ID = "avroEventListener";
+    public static final String JSON_LISTENER_ID = "jsonEventListener";
+    public static final String STRING_LISTENER_ID = "stringEventListener";
+
+    private final ProcessingRecordStore recordStore;
     private final KafkaEventHandlerRegistry handlerRegistry;
-    private final KafkaTopicsProvider kafkaTopicsProvider;
+    private final AnnotatedEventHandlerRegistry annotatedHandlers;
+    private final DisabledEntityGate entityGate;
+    private final RewoundPartitions rewoundPartitions;
+    private final FingerprintTracker fingerprintTracker;
+    private final ElasticConcurrencyController concurrencyController;
+    private final CatchUpModeController catchUpModeController;
+    private final JdbcPoolBackpressureController backpressureController;
+    private final DeadlineBudgetExecutor deadlineBudgets;
+    private final KafkaMetricsService kafkaMetricsService;
+    private final EnvelopeConfig envelopeConfig;
 
     @KafkaListener(
-        topics = "#{@kafkaTopicsProvider.getAvroTopics()}",
+        id = AVRO_LISTENER_ID,
+        info = AVRO_LISTENER_ID,
+        topicPattern = "#{@kafkaTopicsProvider.getAvroTopicPattern()}",
         groupId = "${spring.kafka.consumer.group-id}",
         containerFactory = "avroKafkaListenerContainerFactory"
     )
     @Transactional
-    public void consumeAvro(ConsumerRecord<String, com.example.avro.AvroEventWrapper> record, Acknowledgment acknowledgment) {
-        processMessageAvro(record, acknowledgment, KafkaEventFormat.AVRO, this::handleAvroEvent);
+    public void consumeAvro(ConsumerRecord<String, Object> record, Acknowledgment acknowledgment, Consumer<?, ?> consumer,
+            @Header(name = KafkaHeaders.LISTENER_INFO, required = false) String listenerId) {
+        long start = System.nanoTime();
+        processMessageAvro(record, acknowledgment, consumer, KafkaEventFormat.AVRO, this::handleAvroEvent, false);
+        concurrencyController.recordProcessingTime(listenerId != null ? listenerId : AVRO_LISTENER_ID, System.nanoTime() - start);
     }
 
     @KafkaListener(
-        topics = "#{@kafkaTopicsProvider.getJsonTopics()}",
+        id = JSON_LISTENER_ID,
+        info = JSON_LISTENER_ID,
+        topicPattern = "#{@kafkaTopicsProvider.getJsonTopicPattern()}",
         groupId = "${spring.kafka.consumer.group-id}",
         containerFactory = "jsonKafkaListenerContainerFactory"
     )
     @Transactional
-    public void consumeJson(ConsumerRecord<String, com.example.demo.kafka.factory.EventWrapper<String>> record, Acknowledgment acknowledgment) {
-        processMessageJsonString(record, acknowledgment, KafkaEventFormat.JSON, this::handleJsonEvent);
+    public void consumeJson(ConsumerRecord<String, com.example.demo.kafka.factory.EventWrapper<String>> record, Acknowledgment acknowledgment, Consumer<?, ?> consumer,
+            @Header(name = KafkaHeaders.LISTENER_INFO, required = false) String listenerId) {
+        long start = System.nanoTime();
+        processMessageJsonString(record, acknowledgment, consumer, KafkaEventFormat.JSON, this::handleJsonEvent, false);
+        concurrencyController.recordProcessingTime(listenerId != null ? listenerId : JSON_LISTENER_ID, System.nanoTime() - start);
     }
 
     @KafkaListener(
-        topics = "#{@kafkaTopicsProvider.getStringTopics()}",
+        id = STRING_LISTENER_ID,
+        info = STRING_LISTENER_ID,
+        topicPattern = "#{@kafkaTopicsProvider.getStringTopicPattern()}",
         groupId = "${spring.kafka.consumer.group-id}",
         containerFactory = "stringKafkaListenerContainerFactory"
     )
     @Transactional
-    public void consumeString(ConsumerRecord<String, com.example.demo.kafka.factory.EventWrapper<String>> record, Acknowledgment acknowledgment) {
-        processMessageJsonString(record, acknowledgment, KafkaEventFormat.STRING, this::handleStringEvent);
+    public void consumeString(ConsumerRecord<String, com.example.demo.kafka.factory.EventWrapper<String>> record, Acknowledgment acknowledgment, Consumer<?, ?> consumer,
+            @Header(name = KafkaHeaders.LISTENER_INFO, required = false) String listenerId) {
+        long start = System.nanoTime();
+        processMessageJsonString(record, acknowledgment, consumer, KafkaEventFormat.STRING, this::handleStringEvent, false);
+        concurrencyController.recordProcessingTime(listenerId != null ? listenerId : STRING_LISTENER_ID, System.nanoTime() - start);
+    }
+
+    /**
+     * Processes a record read by the replay service through the normal handlers. The dedupe and
+     * unchanged-update checks are bypassed, since replayed records have been processed before,
+     * and no second processing record is saved. Handler failures are thrown to the caller
+     * instead of being logged, so the replay can count them.
+     */
+    @Transactional
+    @SuppressWarnings("unchecked")
+    public void replay(ConsumerRecord<String, ?> record, KafkaEventFormat format) {
+        Acknowledgment noAck = () -> { };
+        if (format == KafkaEventFormat.AVRO) {
+            processMessageAvro((ConsumerRecord<String, Object>) record, noAck, null, format, this::handleAvroEvent, true);
+        } else {
+            processMessageJsonString((ConsumerRecord<String, com.example.demo.kafka.factory.EventWrapper<String>>) record, noAck, null, format,
+                    format == KafkaEventFormat.JSON ? this::handleJsonEvent : this::handleStringEvent, true);
+        }
     }
 
-    // AVRO processing
-    private <T> void processMessageAvro(ConsumerRecord<String, com.example.avro.AvroEventWrapper> record, 
+    // AVRO processing; the value is an AvroEventWrapper(V2), or an AvroEnvelope read lazily from the record bytes.
+    // Routing, dedupe and expiry use the envelope metadata headers when the producer wrote them.
+    private <T> void processMessageAvro(ConsumerRecord<String, Object> record, 
                                   Acknowledgment acknowledgment, 
+                                  Consumer<?, ?> consumer,
                                   KafkaEventFormat format, 
-                                  java.util.function.Function<ConsumerRecord<String, com.example.avro.AvroEventWrapper>, Void> eventHandler) {
-        String messageId = record.key() != null ? record.key() : generateMessageId(record);
+                                  java.util.function.Function<ConsumerRecord<String, Object>, Void> eventHandler,
+                                  boolean bypassDedupe) {
+        String messageId = messageIdOf(record);
         String topic = record.topic();
-        String entityType = extractEntityTypeFromTopic(topic);
-        com.example.avro.AvroEventWrapper event = record.value();
-        log.info("Entry @class KafkaEventConsumer @method processMessageAvro messageId: {} topic: {} entityType: {} event: {}", messageId, topic, entityType, event);
+        String entityType = entityTypeOf(record);
+        Object event = record.value();
+        boolean logRecord = catchUpModeController.shouldLogRecord();
+        if (logRecord) {
+            log.info("Entry @class KafkaEventConsumer @method processMessageAvro messageId: {} topic: {} entityType: {} event: {}", messageId, topic, entityType, event);
+        }
+        if (consumer != null && !rewoundPartitions.admit(record)) {
+            // Not acknowledged: the partition was rewound to an earlier record of this poll
+            return;
+        }
+        if (!entityGate.admit(format, record, consumer)) {
+            // Not acknowledged: the partition is held at this record until the entity is enabled
+            return;
+        }
+        if (!bypassDedupe && isExpired(record)) {
+            log.warn("Expired {} event dropped: ID={}, Topic={}, ProducedAt={}, TtlSeconds={}", format, messageId, topic,
+                    EventHeaders.producedAt(record.headers()), EventHeaders.ttlSeconds(record.headers()));
+            recordStore.acknowledge(record, acknowledgment);
+            return;
+        }
+        backpressureController.enter(entityType);
         try {
             // Check for duplicate messages
-            if (recordRepository.existsById(messageId)) {
+            if (!bypassDedupe && recordStore.isDuplicate(messageId, record)) {
                 log.warn("Duplicate message detected: ID={}, Topic={}. Skipping processing.", messageId, record.topic());
-                acknowledgment.acknowledge();
+                recordStore.acknowledge(record, acknowledgment);
                 return;
             }
-            log.info("Processing {} event: MessageID={}, Operation={}, EntityType={}, Topic={}", 
-                    format, messageId, event.getEventType(), entityType, record.topic());
-            eventHandler.apply(record);
-            saveProcessingRecordAvro(messageId, record, event, entityType);
+            String eventType = eventTypeOf(record);
+            Long fingerprint = PayloadFingerprint.fromHeaders(record.headers(), fingerprintTracker.getHeaderName());
+            if (!bypassDedupe && fingerprintTracker.shouldSkipConsume(entityType, record.key(), eventType, fingerprint)) {
+                log.info("Unchanged {} event detected: ID={}, Topic={}. Skipping processing.", eventType, messageId, record.topic());
+                recordStore.acknowledge(record, acknowledgment);
+                return;
+            }
+            if (logRecord) {
+                log.info("Processing {} event: MessageID={}, Operation={}, EntityType={}, Topic={}", 
+                        format, messageId, eventType, entityType, record.topic());
+            }
+            if (!runWithinBudget(record, format, entityType, eventHandler, bypassDedupe)) {
+                recordStore.acknowledge(record, acknowledgment);
+                return;
+            }
+            if (!bypassDedupe) {
+                saveProcessingRecordAvro(messageId, record, eventType, entityType, logRecord);
+            }
+            fingerprintTracker.recordConsumed(entityType, record.key(), eventType, fingerprint,
+                    new TopicPartition(record.topic(), record.partition()));
+        } catch (ParkFailedException e) {
+            // Not acknowledged: delivered again from this offset once the error handler's backoff resumes the partition
+            rewoundPartitions.rewind(record, consumer);
+            throw e;
         } catch (Exception e) {
+            if (bypassDedupe) {
+                // Replayed: the replay service records the failure
+                throw e;
+            }
             log.error("Unrecoverable error processing {} event: MessageID={}. Sending to DLT: {}", 
                     format, messageId, record.topic() + "-dlt", e);
+            kafkaMetricsService.recordConsumerFailure(topic);
+        } finally {
+            backpressureController.exit(entityType);
         }
-        acknowledgment.acknowledge();
+        recordStore.acknowledge(record, acknowledgment);
     }
 
     // JSON/STRING processing
     private <T> void processMessageJsonString(ConsumerRecord<String, com.example.demo.kafka.factory.EventWrapper<String>> record, 
                                   Acknowledgment acknowledgment, 
+                                  Consumer<?, ?> consumer,
                                   KafkaEventFormat format, 
-                                  java.util.function.Function<ConsumerRecord<String, com.example.demo.kafka.factory.EventWrapper<String>>, Void> eventHandler) {
-        String messageId = record.key() != null ? record.key() : generateMessageId(record);
+                                  java.util.function.Function<ConsumerRecord<String, com.example.demo.kafka.factory.EventWrapper<String>>, Void> eventHandler,
+                                  boolean bypassDedupe) {
+        String messageId = messageIdOf(record);
         String topic = record.topic();
-        String entityType = extractEntityTypeFromTopic(topic);
+        String entityType = entityTypeOf(record);
         com.example.demo.kafka.factory.EventWrapper<String> event = record.value();
-        log.info("Entry @class KafkaEventConsumer @method processMessageJsonString messageId: {} topic: {} entityType: {} event: {}", messageId, topic, entityType, event);
+        boolean logRecord = catchUpModeController.shouldLogRecord();
+        if (logRecord) {
+            log.info("Entry @class KafkaEventConsumer @method processMessageJsonString messageId: {} topic: {} entityType: {} event: {}", messageId, topic, entityType, event);
+        }
+        if (consumer != null && !rewoundPartitions.admit(record)) {
+            // Not acknowledged: the partition was rewound to an earlier record of this poll
+            return;
+        }
+        if (!entityGate.admit(format, record, consumer)) {
+            // Not acknowledged: the partition is held at this record until the entity is enabled
+            return;
+        }
+        if (!bypassDedupe && isExpired(record)) {
+            log.warn("Expired {} event dropped: ID={}, Topic={}, ProducedAt={}, TtlSeconds={}", format, messageId, topic,
+                    EventHeaders.producedAt(record.headers()), EventHeaders.ttlSeconds(record.headers()));
+            recordStore.acknowledge(record, acknowledgment);
+            return;
+        }
+        backpressureController.enter(entityType);
         try {
-            if (recordRepository.existsById(messageId)) {
+            if (!bypassDedupe && recordStore.isDuplicate(messageId, record)) {
                 log.warn("Duplicate message detected: ID={}, Topic={}. Skipping processing.", messageId, record.topic());
-                acknowledgment.acknowledge();
+                recordStore.acknowledge(record, acknowledgment);
                 return;
             }
-            log.info("Processing {} event: MessageID={}, Operation={}, EntityType={}, Topic={}", 
-                    format, messageId, event.getEventType(), entityType, record.topic());
-            eventHandler.apply(record);
-            saveProcessingRecord(messageId, record, event, entityType);
+            if (logRecord) {
+                log.info("Processing {} event: MessageID={}, Operation={}, EntityType={}, Topic={}", 
+                        format, messageId, event.getEventType(), entityType, record.topic());
+            }
+            if (!runWithinBudget(record, format, entityType, eventHandler, bypassDedupe)) {
+                recordStore.acknowledge(record, acknowledgment);
+                return;
+            }
+            if (!bypassDedupe) {
+                saveProcessingRecord(messageId, record, event, entityType, logRecord);
+            }
+        } catch (ParkFailedException e) {
+            // Not acknowledged: delivered again from this offset once the error handler's backoff resumes the partition
+            rewoundPartitions.rewind(record, consumer);
+            throw e;
         } catch (Exception e) {
+            if (bypassDedupe) {
+                // Replayed: the replay service records the failure
+                throw e;
+            }
             log.error("Unrecoverable error processing {} event: MessageID={}. Sending to DLT: {}", 
                     format, messageId, record.topic() + "-dlt", e);
+            kafkaMetricsService.recordConsumerFailure(topic);
+        } finally {
+            backpressureController.exit(entityType);
         }
-        acknowledgment.acknowledge();
+        recordStore.acknowledge(record, acknowledgment);
+    }
+
+    /**
+     * Runs the handler within the entity type's deadline budget; replayed records are not
+     * parked, since re-publishing them would feed them to the live consumers again.
+     * @return false if the record overran its budget and was parked
+     */
+    private <R extends ConsumerRecord<String, ?>> boolean runWithinBudget(R record, KafkaEventFormat format, String entityType,
+                                                                      Function<R, Void> eventHandler, boolean replayed) {
+        if (replayed) {
+            eventHandler.apply(record);
+            return true;
+        }
+        return deadlineBudgets.execute(entityType, format, record, () -> eventHandler.apply(record));
     }
 
     // Handler methods
-    private Void handleAvroEvent(ConsumerRecord<String, com.example.avro.AvroEventWrapper> record) {
-        String entityType = extractEntityTypeFromTopic(record.topic());
+    private Void handleAvroEvent(ConsumerRecord<String, Object> record) {
+        String entityType = entityTypeOf(record);
+        if (annotatedHandlers.dispatch(entityType, eventTypeOf(record), KafkaEventFormat.AVRO, record.value())) {
+            return null;
+        }
         java.util.Optional<com.example.demo.kafka.consumer.handler.generic.SimpleKafkaEventHandler<?, ?>> optionalHandler = handlerRegistry.getHandler(entityType);
         if (optionalHandler.isPresent()) {
             // You may need to adapt this to your handler's expected method
-            // For example, handler.handleAvroAvroWrapper(record.value());
+            // For example, handler.handleAvroAvroWrapper(AvroEnvelope.resolve(record.value()));
             // Or convert AvroEventWrapper to your entity and call handleCreate/update/delete
         }
         return null;
     }
 
     private Void handleJsonEvent(ConsumerRecord<String, com.example.demo.kafka.factory.EventWrapper<String>> record) {
-        String entityType = extractEntityTypeFromTopic(record.topic());
+        String entityType = entityTypeOf(record);
+        if (annotatedHandlers.dispatch(entityType, record.value().getEventType(), KafkaEventFormat.JSON, record.value())) {
+            return null;
+        }
         java.util.Optional<com.example.demo.kafka.consumer.handler.generic.SimpleKafkaEventHandler<?, ?>> optionalHandler = handlerRegistry.getHandler(entityType);
         if (optionalHandler.isPresent()) {
             optionalHandler.get().handleJson((com.example.demo.kafka.factory.EventWrapper<Object>) (Object) record.value());
@@ -138,7 +307,10 @@ public class KafkaEventConsumer {
     }
 
     private Void handleStringEvent(ConsumerRecord<String, com.example.demo.kafka.factory.EventWrapper<String>> record) {
-        String entityType = extractEntityTypeFromTopic(record.topic());
+        String entityType = entityTypeOf(record);
+        if (annotatedHandlers.dispatch(entityType, record.value().getEventType(), KafkaEventFormat.STRING, record.value())) {
+            return null;
+        }
         java.util.Optional<com.example.demo.kafka.consumer.handler.generic.SimpleKafkaEventHandler<?, ?>> optionalHandler = handlerRegistry.getHandler(entityType);
         if (optionalHandler.isPresent()) {
             optionalHandler.get().handleString(record.value());
@@ -153,9 +325,40 @@ public class KafkaEventConsumer {
         return record.topic() + "-" + record.partition() + "-" + record.offset();
     }
 
+    // The event id header identifies the event itself; without it, Avro records use the id in
+    // the envelope and only then fall back to the key
+    private String messageIdOf(ConsumerRecord<String, ?> record) {
+        EventId eventId = EventHeaders.eventId(record.headers());
+        if (eventId != null) {
+            return eventId.toString();
+        }
+        String envelopeEventId = AvroEnvelope.eventIdOf(record.value());
+        if (envelopeEventId != null) {
+            return envelopeEventId;
+        }
+        return record.key() != null ? record.key() : generateMessageId(record);
+    }
+
+    private String entityTypeOf(ConsumerRecord<?, ?> record) {
+        String entityType = EventHeaders.entityType(record.headers());
+        return entityType != null ? entityType : extractEntityTypeFromTopic(record.topic());
+    }
+
+    // From the header when present, so the value isn't decoded for it
+    private String eventTypeOf(ConsumerRecord<String, Object> record) {
+        String eventType = EventHeaders.eventType(record.headers());
+        return eventType != null ? eventType : AvroEnvelope.eventTypeOf(record.value());
+    }
+
+    private boolean isExpired(ConsumerRecord<?, ?> record) {
+        return envelopeConfig.isDropExpired() && EventHeaders.isExpired(record.headers(), System.currentTimeMillis());
+    }
+
     private <T> void saveProcessingRecord(String messageId, ConsumerRecord<String, EventWrapper<T>> record,
-                                        EventWrapper<T> event, String entityType) {
-        log.info("Entry @class KafkaEventConsumer @method saveProcessingRecord messageId: {} topic: {} entityType: {} event: {}", messageId, record.topic(), entityType, event);
+                                        EventWrapper<T> event, String entityType, boolean logRecord) {
+        if (logRecord) {
+            log.info("Entry @class KafkaEventConsumer @method saveProcessingRecord messageId: {} topic: {} entityType: {} event: {}", messageId, record.topic(), entityType, event);
+        }
         EventProcessingRecord processingRecord = new EventProcessingRecord();
         processingRecord.setMessageId(messageId);
         processingRecord.setTopic(record.topic());
@@ -164,20 +367,22 @@ public class KafkaEventConsumer {
         processingRecord.setOperation(event.getEventType());
         processingRecord.setEntityType(entityType);
         processingRecord.setProcessedTimestamp(System.currentTimeMillis());
-        recordRepository.save(processingRecord);
+        recordStore.save(processingRecord);
     }
 
-    private void saveProcessingRecordAvro(String messageId, ConsumerRecord<String, com.example.avro.AvroEventWrapper> record, com.example.avro.AvroEventWrapper event, String entityType) {
-        log.info("Entry @class KafkaEventConsumer @method saveProcessingRecordAvro messageId: {} topic: {} entityType: {} event: {}", messageId, record.topic(), entityType, event);
+    private void saveProcessingRecordAvro(String messageId, ConsumerRecord<String, Object> record, String eventType, String entityType, boolean logRecord) {
+        if (logRecord) {
+            log.info("Entry @class KafkaEventConsumer @method saveProcessingRecordAvro messageId: {} topic: {} entityType: {} eventType: {}", messageId, record.topic(), entityType, eventType);
+        }
         com.example.demo.kafka.entity.EventProcessingRecord processingRecord = new com.example.demo.kafka.entity.EventProcessingRecord();
         processingRecord.setMessageId(messageId);
         processingRecord.setTopic(record.topic());
         processingRecord.setOffset(record.offset());
         processingRecord.setPartitionNumber(record.partition());
-        processingRecord.setOperation(event.getEventType() != null ? event.getEventType().toString() : null);
+        processingRecord.setOperation(eventType);
         processingRecord.setEntityType(entityType);
         processingRecord.setProcessedTimestamp(System.currentTimeMillis());
-        recordRepository.save(processingRecord);
+        recordStore.save(processingRecord);
     }
 
     private String extractEntityTypeFromTopic(String topic) {
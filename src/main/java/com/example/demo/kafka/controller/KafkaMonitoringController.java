@@ -5,9 +5,23 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import com.example.demo.kafka.config.KafkaEventFormat;
+import com.example.demo.kafka.config.KafkaTopicsProvider;
+import com.example.demo.kafka.consumer.backpressure.JdbcPoolBackpressureController;
+import com.example.demo.kafka.consumer.catchup.CatchUpModeController;
+import com.example.demo.kafka.consumer.concurrency.ElasticConcurrencyController;
+import com.example.demo.kafka.consumer.deadline.DeadlineBudgetExecutor;
+import com.example.demo.kafka.consumer.gate.DisabledEntityGate;
+import com.example.demo.kafka.consumer.serde.ReusingAvroDeserializer;
+import com.example.demo.kafka.consumer.serde.SpecificRecordConverter;
+import com.example.demo.kafka.consumer.util.AnnotatedEventHandlerRegistry;
+import com.example.demo.kafka.fingerprint.FingerprintTracker;
 import com.example.demo.kafka.metrics.KafkaMetricsService;
 import com.example.demo.kafka.producer.KafkaEventProducer;
+import com.example.demo.kafka.producer.profile.DurabilityTiers;
+import com.example.demo.kafka.producer.transaction.AggregateTransactionPublisher;
 
+import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
 
@@ -19,6 +33,16 @@ public class KafkaMonitoringController {
 
     private final KafkaMetricsService kafkaMetricsService;
     private final KafkaEventProducer kafkaEventProducer;
+    private final FingerprintTracker fingerprintTracker;
+    private final ElasticConcurrencyController concurrencyController;
+    private final KafkaTopicsProvider kafkaTopicsProvider;
+    private final DisabledEntityGate entityGate;
+    private final CatchUpModeController catchUpModeController;
+    private final JdbcPoolBackpressureController backpressureController;
+    private final AnnotatedEventHandlerRegistry annotatedHandlers;
+    private final DeadlineBudgetExecutor deadlineBudgets;
+    private final DurabilityTiers durabilityTiers;
+    private final AggregateTransactionPublisher aggregateTransactions;
 
     @GetMapping("/health")
     public ResponseEntity<Map<String, Object>> getKafkaHealth() {
@@ -65,6 +89,12 @@ public class KafkaMonitoringController {
         return ResponseEntity.ok(kafkaMetricsService.getErrorMetrics());
     }
 
+    @GetMapping("/metrics/fingerprint")
+    public ResponseEntity<Map<String, Object>> getFingerprintMetrics() {
+        log.info("Fingerprint metrics requested");
+        return ResponseEntity.ok(fingerprintTracker.getStatistics());
+    }
+
     @GetMapping("/metrics/topics")
     public ResponseEntity<Map<String, Object>> getAllTopicMetrics() {
         log.info("All topic metrics requested");
@@ -94,24 +124,102 @@ public class KafkaMonitoringController {
         status.put("success_rate_percent", kafkaEventProducer.getSuccessRate());
         status.put("circuit_breaker_open", kafkaEventProducer.isCircuitBreakerOpenStatus());
         status.put("circuit_breaker_failures", kafkaEventProducer.getCircuitBreakerFailures());
+        status.put("retried_messages", kafkaEventProducer.getRetriedMessages());
+        status.put("in_flight", kafkaEventProducer.getInFlight());
+        status.put("max_in_flight", kafkaEventProducer.getMaxInFlight());
+        status.put("queued_sends", kafkaEventProducer.getQueuedSends());
+        status.put("value_sizes", kafkaEventProducer.getValueSizes());
         
         return ResponseEntity.ok(status);
     }
 
+    @GetMapping("/metrics/avro-intern")
+    public ResponseEntity<Map<String, Object>> getAvroInternMetrics() {
+        log.info("Avro intern table metrics requested");
+        return ResponseEntity.ok(ReusingAvroDeserializer.getInternStatistics());
+    }
+
+    @GetMapping("/metrics/avro-conversion")
+    public ResponseEntity<Map<String, Object>> getAvroConversionMetrics() {
+        log.info("Avro record conversion metrics requested");
+        return ResponseEntity.ok(SpecificRecordConverter.shared().getStatistics());
+    }
+
+    @GetMapping("/consumer/concurrency")
+    public ResponseEntity<Map<String, Object>> getConsumerConcurrency() {
+        log.info("Consumer concurrency status requested");
+        return ResponseEntity.ok(concurrencyController.getStatus());
+    }
+
+    @GetMapping("/consumer/catch-up")
+    public ResponseEntity<Map<String, Object>> getCatchUpStatus() {
+        log.info("Consumer catch-up status requested");
+        return ResponseEntity.ok(catchUpModeController.getStatus());
+    }
+
+    @GetMapping("/consumer/backpressure")
+    public ResponseEntity<Map<String, Object>> getBackpressureStatus() {
+        log.info("Consumer backpressure status requested");
+        return ResponseEntity.ok(backpressureController.getStatus());
+    }
+
+    @GetMapping("/consumer/deadlines")
+    public ResponseEntity<Map<String, Object>> getDeadlineBudgets() {
+        log.info("Consumer deadline budget status requested");
+        return ResponseEntity.ok(deadlineBudgets.getStatistics());
+    }
+
+    @GetMapping("/consumer/handlers")
+    public ResponseEntity<Map<String, Object>> getEventHandlers() {
+        log.info("Annotated event handlers requested");
+        return ResponseEntity.ok(annotatedHandlers.getRegisteredHandlers());
+    }
+
     @PostMapping("/producer/reset-circuit-breaker")
-    public ResponseEntity<Map<String, Object>> resetCircuitBreaker() {
-        log.info("Circuit breaker reset requested");
+    public ResponseEntity<Map<String, Object>> resetCircuitBreaker(@RequestParam(required = false) String topic) {
+        log.info("Circuit breaker reset requested for topic: {}", topic != null ? topic : "all");
         Map<String, Object> response = new HashMap<>();
-        
-        // Note: This would require adding a reset method to KafkaEventProducer
-        // For now, we'll just return the current status
-        response.put("message", "Circuit breaker reset request received");
+
+        if (topic != null) {
+            if (!kafkaEventProducer.resetCircuitBreaker(topic)) {
+                response.put("message", "No circuit breaker for topic " + topic);
+                return ResponseEntity.status(404).body(response);
+            }
+            response.put("message", "Circuit breaker reset for topic " + topic);
+        } else {
+            kafkaEventProducer.resetCircuitBreakers();
+            response.put("message", "All circuit breakers reset");
+        }
         response.put("current_status", kafkaEventProducer.isCircuitBreakerOpenStatus());
         response.put("current_failures", kafkaEventProducer.getCircuitBreakerFailures());
-        
+
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/producer/circuit-breakers")
+    public ResponseEntity<Map<String, Object>> getCircuitBreakers() {
+        log.info("Circuit breaker status requested");
+        return ResponseEntity.ok(kafkaEventProducer.getCircuitBreakerStatus());
+    }
+
+    @GetMapping("/producer/profiles")
+    public ResponseEntity<Map<String, Object>> getProducerProfiles() {
+        log.info("Producer profiles requested");
+        return ResponseEntity.ok(kafkaEventProducer.getProfileStatus());
+    }
+
+    @GetMapping("/producer/durability-tiers")
+    public ResponseEntity<Map<String, Object>> getDurabilityTiers() {
+        log.info("Durability tiers requested");
+        return ResponseEntity.ok(durabilityTiers.getStatus());
+    }
+
+    @GetMapping("/producer/transactions")
+    public ResponseEntity<Map<String, Object>> getProducerTransactions() {
+        log.info("Producer transactions requested");
+        return ResponseEntity.ok(aggregateTransactions.getStatistics());
+    }
+
     @GetMapping("/topics/active")
     public ResponseEntity<Map<String, Object>> getActiveTopics() {
         log.info("Active topics requested");
@@ -140,6 +248,38 @@ public class KafkaMonitoringController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/topics/subscriptions")
+    public ResponseEntity<Map<String, Object>> getTopicSubscriptions() {
+        log.info("Topic subscriptions requested");
+        Map<String, Object> response = new HashMap<>();
+        response.put("enabled_entities", kafkaTopicsProvider.getEnabledEntities());
+        response.put("enabled_entities_scope", "instance");
+        response.put("held_partitions", entityGate.getStatus());
+        response.put("patterns", Map.of(
+            "avro", kafkaTopicsProvider.getAvroTopicPattern().pattern(),
+            "json", kafkaTopicsProvider.getJsonTopicPattern().pattern(),
+            "string", kafkaTopicsProvider.getStringTopicPattern().pattern()
+        ));
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/topics/refresh")
+    public ResponseEntity<Map<String, Object>> refreshTopicSubscriptions() {
+        log.info("Topic subscription refresh requested");
+        Map<String, Object> enabled = kafkaTopicsProvider.refresh();
+        entityGate.releaseEnabled();
+        return ResponseEntity.ok(enabled);
+    }
+
+    @PutMapping("/topics/{format}/entities")
+    public ResponseEntity<Map<String, Object>> setConsumedEntities(@PathVariable String format, @RequestBody List<String> entities) {
+        log.info("Consumed entities update requested: format={}, entities={}", format, entities);
+        // Applies to this instance only; see KafkaTopicsProvider#setEntities
+        Map<String, Object> enabled = kafkaTopicsProvider.setEntities(KafkaEventFormat.valueOf(format.toUpperCase()), entities);
+        entityGate.releaseEnabled();
+        return ResponseEntity.ok(enabled);
+    }
+
     @GetMapping("/performance/summary")
     public ResponseEntity<Map<String, Object>> getPerformanceSummary() {
         log.info("Performance summary requested");
@@ -0,0 +1,51 @@
+package com.example.demo.kafka.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.example.demo.kafka.consumer.replay.ReplayRequest;
+import com.example.demo.kafka.consumer.replay.ReplayService;
+
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/kafka/replay")
+@RequiredArgsConstructor
+public class KafkaReplayController {
+
+    private final ReplayService replayService;
+
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> startReplay(@RequestBody ReplayRequest request) {
+        log.info("Replay requested: {}", request);
+        try {
+            return ResponseEntity.accepted().body(replayService.start(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<List<Map<String, Object>>> getReplays() {
+        log.info("Replay list requested");
+        return ResponseEntity.ok(replayService.getReplays());
+    }
+
+    @GetMapping("/{replayId}")
+    public ResponseEntity<Map<String, Object>> getReplay(@PathVariable String replayId) {
+        log.info("Replay progress requested: {}", replayId);
+        Map<String, Object> status = replayService.getReplay(replayId);
+        return status != null ? ResponseEntity.ok(status) : ResponseEntity.notFound().build();
+    }
+
+    @DeleteMapping("/{replayId}")
+    public ResponseEntity<Map<String, Object>> cancelReplay(@PathVariable String replayId) {
+        log.info("Replay cancellation requested: {}", replayId);
+        Map<String, Object> status = replayService.cancel(replayId);
+        return status != null ? ResponseEntity.ok(status) : ResponseEntity.notFound().build();
+    }
+}
@@ -1,36 +1,154 @@
 package com.example.demo.kafka.factory;
 
+import java.time.Instant;
 import java.time.OffsetDateTime;
-import java.util.UUID;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
 
+import org.apache.avro.specific.SpecificRecord;
 import org.springframework.stereotype.Component;
 
+import com.example.avro.AvroEntityType;
+import com.example.avro.AvroEventId;
+import com.example.avro.AvroEventType;
 import com.example.avro.AvroEventWrapper;
+import com.example.avro.AvroEventWrapperV2;
+import com.example.demo.kafka.config.EnvelopeConfig;
+import com.example.demo.kafka.config.EventIdConfig;
+import com.example.demo.kafka.factory.id.EventId;
+import com.example.demo.kafka.factory.id.EventIdGenerator;
+import com.example.demo.kafka.factory.id.RandomUuidEventIdGenerator;
+import com.example.demo.kafka.factory.id.UlidEventIdGenerator;
 
-import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
-@NoArgsConstructor
 @Slf4j
 @Component
 public class EventFactory {
-    
+
+    private static final String V2_VERSION = "v2";
+    private static final String PRODUCER_REGION = "us-east";
+    private static final int TTL_SECONDS = 3600;
+    private static final Map<String, AvroEventType> EVENT_TYPES = symbols(AvroEventType.values());
+    private static final Map<String, AvroEntityType> ENTITY_TYPES = symbols(AvroEntityType.values());
+
+    // Until the context installs the configured generator and version
+    private static volatile EventIdGenerator idGenerator = new UlidEventIdGenerator(0);
+    private static volatile int avroEnvelopeVersion = 1;
+
+    public EventFactory(EventIdConfig config, EnvelopeConfig envelopeConfig) {
+        if (envelopeConfig.getAvroVersion() != 1 && envelopeConfig.getAvroVersion() != 2) {
+            throw new IllegalArgumentException("kafka.envelope.avro-version must be 1 or 2, got: " + envelopeConfig.getAvroVersion());
+        }
+        avroEnvelopeVersion = envelopeConfig.getAvroVersion();
+        if (config.getGenerator() == EventIdConfig.Generator.UUID) {
+            setIdGenerator(new RandomUuidEventIdGenerator());
+            log.info("Event ids: random UUIDs");
+        } else {
+            int nodeId = config.getNodeId() != null ? config.getNodeId() : defaultNodeId();
+            setIdGenerator(new UlidEventIdGenerator(nodeId));
+            log.info("Event ids: time-ordered ULIDs with node id {}", nodeId);
+        }
+    }
+
+    private static int defaultNodeId() {
+        String hostname = System.getenv("HOSTNAME");
+        return hostname != null && !hostname.isBlank() ? hostname.hashCode() & UlidEventIdGenerator.MAX_NODE_ID : 0;
+    }
+
+    public static void setIdGenerator(EventIdGenerator generator) {
+        idGenerator = generator;
+    }
+
+    public static String nextId() {
+        return idGenerator.nextId();
+    }
+
+    /**
+     * The Avro envelope in the configured version. Events whose type or entity has no v2 enum
+     * symbol are written as v1, so nothing is lost during the migration.
+     */
+    public static <T> SpecificRecord createAvroEnvelope(T payload, String eventType,
+            String entityType, String source, String topic, String version) {
+        if (avroEnvelopeVersion == 2 && EVENT_TYPES.containsKey(eventType) && ENTITY_TYPES.containsKey(entityType)) {
+            return createAvroV2(payload, eventType, entityType, source);
+        }
+        return createAvro(payload, eventType, entityType, source, topic, version);
+    }
+
+    /**
+     * v2 envelope: binary ids, enum types and an epoch-millis timestamp. The topic is left out,
+     * the record carries it, and the schema itself is the version.
+     */
+    public static <T> AvroEventWrapperV2 createAvroV2(T payload, String eventType, String entityType, String source) {
+        AvroEventType type = EVENT_TYPES.get(eventType);
+        AvroEntityType entity = ENTITY_TYPES.get(entityType);
+        if (type == null || entity == null) {
+            throw new IllegalArgumentException("No v2 envelope symbol for event type " + eventType + " of " + entityType);
+        }
+        AvroEventWrapperV2 eventWrapper = new AvroEventWrapperV2();
+        eventWrapper.setEventId(new AvroEventId(idGenerator.next().toBytes()));
+        eventWrapper.setEventType(type);
+        eventWrapper.setEntityType(entity);
+        eventWrapper.setTimestamp(Instant.ofEpochMilli(System.currentTimeMillis()));
+        eventWrapper.setTraceId(new AvroEventId(idGenerator.next().toBytes()));
+        eventWrapper.setSource(source);
+        eventWrapper.setProducerRegion(PRODUCER_REGION);
+        eventWrapper.setRetryCount(0);
+        eventWrapper.setTtl(TTL_SECONDS);
+        eventWrapper.setData(payload);
+        return eventWrapper;
+    }
+
+    /**
+     * The v1 view of a v2 envelope, for consumers and handlers written against v1.
+     */
+    public static AvroEventWrapper toV1(AvroEventWrapperV2 event) {
+        AvroEventWrapper eventWrapper = new AvroEventWrapper();
+        eventWrapper.setEventId(EventId.fromBytes(event.getEventId().bytes()).toString());
+        eventWrapper.setEventType(eventTypeOf(event));
+        eventWrapper.setEntityType(event.getEntityType().name().toLowerCase());
+        eventWrapper.setSource(event.getSource());
+        eventWrapper.setVersion(V2_VERSION);
+        eventWrapper.setTraceId(event.getTraceId() != null ? EventId.fromBytes(event.getTraceId().bytes()).toString() : null);
+        eventWrapper.setProducerRegion(event.getProducerRegion());
+        eventWrapper.setRetryCount(event.getRetryCount());
+        eventWrapper.setTtl(event.getTtl());
+        eventWrapper.setTimestamp(OffsetDateTime.ofInstant(event.getTimestamp(), ZoneOffset.UTC).toString());
+        eventWrapper.setData(event.getData());
+        return eventWrapper;
+    }
+
+    public static String eventTypeOf(AvroEventWrapperV2 event) {
+        return event.getEventType().name().toLowerCase();
+    }
+
+    private static <E extends Enum<E>> Map<String, E> symbols(E[] values) {
+        Map<String, E> symbols = new HashMap<>();
+        for (E value : values) {
+            if (!"UNKNOWN".equals(value.name())) {
+                symbols.put(value.name().toLowerCase(), value);
+            }
+        }
+        return symbols;
+    }
 
     public static <T> AvroEventWrapper createAvro(T payload, String eventType,
             String entityType, String source, String topic, String version){
 
         AvroEventWrapper eventWrapper = new AvroEventWrapper();
-        eventWrapper.setEventId(UUID.randomUUID().toString());
+        eventWrapper.setEventId(nextId());
         eventWrapper.setEventType(eventType);
         eventWrapper.setData(payload);
         eventWrapper.setEntityType(entityType);
         eventWrapper.setSource(source);
         eventWrapper.setTopic(topic);
         eventWrapper.setVersion(version);
-        eventWrapper.setTraceId(UUID.randomUUID().toString());
-        eventWrapper.setProducerRegion("us-east");
+        eventWrapper.setTraceId(nextId());
+        eventWrapper.setProducerRegion(PRODUCER_REGION);
         eventWrapper.setRetryCount(0);
-        eventWrapper.setTtl(3600);
+        eventWrapper.setTtl(TTL_SECONDS);
         eventWrapper.setTimestamp(OffsetDateTime.now().toString());
         return eventWrapper;
     }
@@ -39,17 +157,17 @@ public class EventFactory {
             String entityType, String source, String topic, String version){
 
         EventWrapper<T> eventWrapper = new EventWrapper<>();
-        eventWrapper.setEventId(UUID.randomUUID().toString());
+        eventWrapper.setEventId(nextId());
         eventWrapper.setEventType(eventType);
         eventWrapper.setEntityType(entityType);
         eventWrapper.setData(payload);
         eventWrapper.setSource(source);
         eventWrapper.setTopic(topic);
         eventWrapper.setVersion(version);
-        eventWrapper.setTraceId(UUID.randomUUID().toString());
-        eventWrapper.setProducerRegion("us-east");
+        eventWrapper.setTraceId(nextId());
+        eventWrapper.setProducerRegion(PRODUCER_REGION);
         eventWrapper.setRetryCount(0);
-        eventWrapper.setTtl(3600);
+        eventWrapper.setTtl(TTL_SECONDS);
         eventWrapper.setTimestamp(OffsetDateTime.now());
         return eventWrapper;
     }
@@ -0,0 +1,163 @@
+package com.example.demo.kafka.factory;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+import com.example.avro.AvroEntityType;
+import com.example.avro.AvroEventType;
+import com.example.avro.AvroEventWrapper;
+import com.example.avro.AvroEventWrapperV2;
+import com.example.demo.kafka.factory.id.EventId;
+
+/**
+ * Envelope metadata carried in record headers, so consumers can filter, dedupe, expire and
+ * route a record without decoding its value. Header values are binary: the event id as its
+ * 16 bytes, event and entity types as the one-byte index of their v2 enum symbol (UTF-8 text
+ * when there is none), the envelope version as one byte, and the producer timestamp and TTL as
+ * big-endian numbers. The accessors return {@code null} for absent or malformed headers.
+ */
+public final class EventHeaders {
+
+    public static final String EVENT_ID = "x-event-id";
+    public static final String EVENT_TYPE = "x-event-type";
+    public static final String ENTITY_TYPE = "x-entity-type";
+    public static final String SOURCE = "x-event-source";
+    public static final String SCHEMA_VERSION = "x-envelope-version";
+    public static final String PRODUCED_AT = "x-produced-at";
+    public static final String TTL = "x-event-ttl";
+
+    private static final AvroEventType[] EVENT_TYPES = AvroEventType.values();
+    private static final AvroEntityType[] ENTITY_TYPES = AvroEntityType.values();
+
+    private EventHeaders() {}
+
+    /**
+     * Adds the metadata of a v1 or v2 Avro or a JSON envelope; other values get none. Records
+     * that already carry an event id header, e.g. ones being republished, are left as they are.
+     */
+    public static void addTo(Headers headers, Object envelope, long producedAtMillis) {
+        if (headers.lastHeader(EVENT_ID) != null) {
+            return;
+        }
+        if (envelope instanceof AvroEventWrapperV2 event) {
+            headers.add(EVENT_ID, event.getEventId().bytes());
+            headers.add(EVENT_TYPE, new byte[] {(byte) event.getEventType().ordinal()});
+            headers.add(ENTITY_TYPE, new byte[] {(byte) event.getEntityType().ordinal()});
+            addCommon(headers, event.getSource(), 2, producedAtMillis, event.getTtl());
+        } else if (envelope instanceof AvroEventWrapper event) {
+            addTypes(headers, event.getEventId(), event.getEventType(), event.getEntityType());
+            addCommon(headers, event.getSource(), 1, producedAtMillis, event.getTtl());
+        } else if (envelope instanceof EventWrapper<?> event) {
+            addTypes(headers, event.getEventId(), event.getEventType(), event.getEntityType());
+            addCommon(headers, event.getSource(), 1, producedAtMillis, event.getTtl());
+        }
+    }
+
+    private static void addTypes(Headers headers, CharSequence eventId, CharSequence eventType, CharSequence entityType) {
+        if (eventId != null) {
+            try {
+                headers.add(EVENT_ID, EventId.parse(eventId).toBytes());
+            } catch (IllegalArgumentException e) {
+                // Not a generated id: consumers fall back to the record key
+            }
+        }
+        if (eventType != null) {
+            headers.add(EVENT_TYPE, symbol(eventType.toString(), EVENT_TYPES));
+        }
+        if (entityType != null) {
+            headers.add(ENTITY_TYPE, symbol(entityType.toString(), ENTITY_TYPES));
+        }
+    }
+
+    private static void addCommon(Headers headers, CharSequence source, int schemaVersion, long producedAtMillis, Integer ttl) {
+        if (source != null) {
+            headers.add(SOURCE, source.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        headers.add(SCHEMA_VERSION, new byte[] {(byte) schemaVersion});
+        headers.add(PRODUCED_AT, ByteBuffer.allocate(Long.BYTES).putLong(producedAtMillis).array());
+        if (ttl != null && ttl > 0) {
+            headers.add(TTL, ByteBuffer.allocate(Integer.BYTES).putInt(ttl).array());
+        }
+    }
+
+    private static <E extends Enum<E>> byte[] symbol(String type, E[] symbols) {
+        for (int i = 1; i < symbols.length; i++) {
+            if (symbols[i].name().equalsIgnoreCase(type)) {
+                return new byte[] {(byte) i};
+            }
+        }
+        return type.getBytes(StandardCharsets.UTF_8);
+    }
+
+    public static EventId eventId(Headers headers) {
+        byte[] value = value(headers, EVENT_ID);
+        return value != null && value.length == EventId.BYTES ? EventId.fromBytes(value) : null;
+    }
+
+    /**
+     * @return the event type in lower case (e.g. "create"), as the v1 envelope carries it
+     */
+    public static String eventType(Headers headers) {
+        return type(value(headers, EVENT_TYPE), EVENT_TYPES);
+    }
+
+    /**
+     * @return the entity type in lower case (e.g. "user"), as the v1 envelope carries it
+     */
+    public static String entityType(Headers headers) {
+        return type(value(headers, ENTITY_TYPE), ENTITY_TYPES);
+    }
+
+    public static String source(Headers headers) {
+        byte[] value = value(headers, SOURCE);
+        return value != null ? new String(value, StandardCharsets.UTF_8) : null;
+    }
+
+    /**
+     * @return 1 for {@link AvroEventWrapper} and JSON envelopes, 2 for {@link AvroEventWrapperV2}
+     */
+    public static Integer schemaVersion(Headers headers) {
+        byte[] value = value(headers, SCHEMA_VERSION);
+        return value != null && value.length == 1 ? (int) value[0] : null;
+    }
+
+    public static Long producedAt(Headers headers) {
+        byte[] value = value(headers, PRODUCED_AT);
+        return value != null && value.length == Long.BYTES ? ByteBuffer.wrap(value).getLong() : null;
+    }
+
+    public static Integer ttlSeconds(Headers headers) {
+        byte[] value = value(headers, TTL);
+        return value != null && value.length == Integer.BYTES ? ByteBuffer.wrap(value).getInt() : null;
+    }
+
+    /**
+     * @return true if the record carries a producer timestamp and TTL and is older than the TTL
+     */
+    public static boolean isExpired(Headers headers, long nowMillis) {
+        Long producedAt = producedAt(headers);
+        Integer ttl = ttlSeconds(headers);
+        return producedAt != null && ttl != null && ttl > 0 && nowMillis - producedAt > ttl * 1000L;
+    }
+
+    private static <E extends Enum<E>> String type(byte[] value, E[] symbols) {
+        if (value == null || value.length == 0) {
+            return null;
+        }
+        if (value.length == 1 && value[0] > 0 && value[0] < symbols.length) {
+            return symbols[value[0]].name().toLowerCase();
+        }
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] value(Headers headers, String key) {
+        if (headers == null) {
+            return null;
+        }
+        Header header = headers.lastHeader(key);
+        return header != null ? header.value() : null;
+    }
+}
@@ -1,7 +1,6 @@
 package com.example.demo.kafka.factory;
 
 import java.time.OffsetDateTime;
-import java.util.UUID;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -17,7 +16,7 @@ import lombok.ToString;
 @AllArgsConstructor
 public class EventWrapper<T> {
  
-    private String eventId = UUID.randomUUID().toString();   // Unique ID for idempotency
+    private String eventId = EventFactory.nextId();   // Unique ID for idempotency
     private String eventType;         // CREATE / UPDATE / DELETE / etc.
     private String entityType;        // Logical entity name (e.g. User, Order)
     private String source;            // Originating service (e.g. user-service)
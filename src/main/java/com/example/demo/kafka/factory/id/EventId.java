@@ -0,0 +1,92 @@
+package com.example.demo.kafka.factory.id;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * A 128-bit event id. The text form is the 26-character Crockford base32 of ULID, which sorts
+ * the same way as the 16-byte binary form; both sort by creation time for ids from
+ * {@link UlidEventIdGenerator}. {@link #parse} also accepts the 36-character UUID form.
+ */
+public record EventId(long mostSignificantBits, long leastSignificantBits) implements Comparable<EventId> {
+
+    public static final int BYTES = 16;
+
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final byte[] DECODE = new byte[128];
+
+    static {
+        Arrays.fill(DECODE, (byte) -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            DECODE[ALPHABET[i]] = (byte) i;
+            DECODE[Character.toLowerCase(ALPHABET[i])] = (byte) i;
+        }
+        // Crockford aliases
+        DECODE['O'] = DECODE['o'] = 0;
+        DECODE['I'] = DECODE['i'] = DECODE['L'] = DECODE['l'] = 1;
+    }
+
+    /**
+     * Milliseconds since the epoch the id was created at; only meaningful for time-ordered ids.
+     */
+    public long timestampMillis() {
+        return mostSignificantBits >>> 16;
+    }
+
+    public byte[] toBytes() {
+        return ByteBuffer.allocate(BYTES).putLong(mostSignificantBits).putLong(leastSignificantBits).array();
+    }
+
+    public static EventId fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length != BYTES) {
+            throw new IllegalArgumentException("An event id has " + BYTES + " bytes");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new EventId(buffer.getLong(), buffer.getLong());
+    }
+
+    public static EventId fromUuid(UUID uuid) {
+        return new EventId(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    public static EventId parse(CharSequence text) {
+        if (text.length() == 36) {
+            return fromUuid(UUID.fromString(text.toString()));
+        }
+        if (text.length() != 26) {
+            throw new IllegalArgumentException("Not an event id: " + text);
+        }
+        long high = 0;
+        long low = 0;
+        for (int i = 0; i < 26; i++) {
+            char c = text.charAt(i);
+            int value = c < 128 ? DECODE[c] : -1;
+            if (value < 0 || (i == 0 && value > 7)) {
+                throw new IllegalArgumentException("Not an event id: " + text);
+            }
+            high = (high << 5) | (low >>> 59);
+            low = (low << 5) | value;
+        }
+        return new EventId(high, low);
+    }
+
+    @Override
+    public int compareTo(EventId other) {
+        int result = Long.compareUnsigned(mostSignificantBits, other.mostSignificantBits);
+        return result != 0 ? result : Long.compareUnsigned(leastSignificantBits, other.leastSignificantBits);
+    }
+
+    @Override
+    public String toString() {
+        char[] text = new char[26];
+        long high = mostSignificantBits;
+        long low = leastSignificantBits;
+        for (int i = 25; i >= 0; i--) {
+            text[i] = ALPHABET[(int) (low & 31)];
+            low = (low >>> 5) | (high << 59);
+            high >>>= 5;
+        }
+        return new String(text);
+    }
+}
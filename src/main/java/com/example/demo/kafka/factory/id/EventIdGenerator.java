@@ -0,0 +1,16 @@
+package com.example.demo.kafka.factory.id;
+
+/**
+ * Source of event and trace ids for {@link com.example.demo.kafka.factory.EventFactory}.
+ */
+public interface EventIdGenerator {
+
+    EventId next();
+
+    /**
+     * The id as written into envelopes.
+     */
+    default String nextId() {
+        return next().toString();
+    }
+}
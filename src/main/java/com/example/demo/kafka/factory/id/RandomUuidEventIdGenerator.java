@@ -0,0 +1,19 @@
+package com.example.demo.kafka.factory.id;
+
+import java.util.UUID;
+
+/**
+ * The previous behaviour: random UUIDs in their 36-character form. Not time-ordered.
+ */
+public final class RandomUuidEventIdGenerator implements EventIdGenerator {
+
+    @Override
+    public EventId next() {
+        return EventId.fromUuid(UUID.randomUUID());
+    }
+
+    @Override
+    public String nextId() {
+        return UUID.randomUUID().toString();
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.demo.kafka.factory.id;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Time-ordered ids in the ULID layout: 48 bits of epoch milliseconds and a 16-bit node id in
+ * the high half, a per-thread sequence in the low half. Every thread keeps its own last
+ * timestamp and sequence, so generating an id takes no lock, no shared counter and no
+ * {@code SecureRandom}. On a new millisecond the sequence starts at a random 63-bit value,
+ * within the same millisecond it is incremented, which keeps a thread's ids strictly increasing
+ * (also when the clock steps back) and makes ids of concurrent threads on one node collide
+ * only with negligible probability.
+ */
+public final class UlidEventIdGenerator implements EventIdGenerator {
+
+    public static final int MAX_NODE_ID = 0xFFFF;
+
+    private final long nodeId;
+    private final ThreadLocal<State> state = ThreadLocal.withInitial(State::new);
+
+    public UlidEventIdGenerator(int nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID + ", got: " + nodeId);
+        }
+        this.nodeId = nodeId;
+    }
+
+    @Override
+    public EventId next() {
+        State current = state.get();
+        long now = System.currentTimeMillis();
+        if (now > current.lastMillis) {
+            current.lastMillis = now;
+            current.sequence = ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE;
+        } else if (++current.sequence < 0) {
+            // Sequence exhausted within one millisecond: borrow the next one
+            current.lastMillis++;
+            current.sequence = ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE;
+        }
+        return new EventId((current.lastMillis << 16) | nodeId, current.sequence);
+    }
+
+    public int getNodeId() {
+        return (int) nodeId;
+    }
+
+    private static final class State {
+        private long lastMillis = -1;
+        private long sequence;
+    }
+}
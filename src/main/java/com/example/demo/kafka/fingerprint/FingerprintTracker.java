@@ -0,0 +1,158 @@
+package com.example.demo.kafka.fingerprint;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.kafka.config.FingerprintConfig;
+import com.example.demo.kafka.consumer.rebalance.PartitionScopedState;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Remembers the last content fingerprint seen per entity key, on the producer and on the
+ * consumer side, so consecutive identical update events can be dropped. Fingerprints are only
+ * remembered once the event was acknowledged by the broker, or applied by the consumer.
+ */
+@Slf4j
+@Component
+public class FingerprintTracker implements PartitionScopedState {
+
+    private static final String UPDATE = "update";
+    private static final String DELETE = "delete";
+
+    private final FingerprintConfig config;
+    private final Map<String, Long> lastPublished;
+    private final Map<String, ConsumedFingerprint> lastConsumed;
+
+    private final AtomicLong producerSkipped = new AtomicLong(0);
+    private final AtomicLong consumerSkipped = new AtomicLong(0);
+
+    public FingerprintTracker(FingerprintConfig config) {
+        this.config = config;
+        this.lastPublished = boundedMap(config.getProducer().getCacheSize());
+        this.lastConsumed = boundedMap(config.getConsumer().getCacheSize());
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    public String getHeaderName() {
+        return config.getHeaderName();
+    }
+
+    /**
+     * @return true if the event is an update identical to the last one published for this key and should not be published
+     */
+    public boolean shouldSkipPublish(String entityType, String key, String eventType, long fingerprint) {
+        if (!config.isEnabled() || !config.getProducer().isSkipUnchanged() || key == null) {
+            return false;
+        }
+        Long previous = lastPublished.get(entityType + ":" + key);
+        boolean skip = UPDATE.equalsIgnoreCase(eventType) && previous != null && previous == fingerprint;
+        if (skip) {
+            producerSkipped.incrementAndGet();
+            log.debug("Skipping unchanged {} publish: EntityType={}, Key={}", eventType, entityType, key);
+        }
+        return skip;
+    }
+
+    /**
+     * Records the fingerprint of an event once the broker has acknowledged it, so a failed send
+     * does not cause the next identical update to be skipped.
+     */
+    public void recordPublished(String entityType, String key, String eventType, long fingerprint) {
+        if (!config.isEnabled() || key == null) {
+            return;
+        }
+        String cacheKey = entityType + ":" + key;
+        if (DELETE.equalsIgnoreCase(eventType)) {
+            lastPublished.remove(cacheKey);
+        } else {
+            lastPublished.put(cacheKey, fingerprint);
+        }
+    }
+
+    /**
+     * @return true if the event is an update identical to the last one applied for this key and can be skipped
+     */
+    public boolean shouldSkipConsume(String entityType, String key, String eventType, Long fingerprint) {
+        if (!config.isEnabled() || !config.getConsumer().isSkipUnchanged() || fingerprint == null || key == null) {
+            return false;
+        }
+        ConsumedFingerprint previous = lastConsumed.get(entityType + ":" + key);
+        boolean skip = UPDATE.equalsIgnoreCase(eventType)
+                && previous != null && previous.fingerprint() == fingerprint;
+        if (skip) {
+            consumerSkipped.incrementAndGet();
+            log.debug("Skipping unchanged {} event: EntityType={}, Key={}", eventType, entityType, key);
+        }
+        return skip;
+    }
+
+    /**
+     * Records the fingerprint of an event once it has been applied successfully.
+     */
+    public void recordConsumed(String entityType, String key, String eventType, Long fingerprint, TopicPartition partition) {
+        if (!config.isEnabled() || fingerprint == null || key == null) {
+            return;
+        }
+        String cacheKey = entityType + ":" + key;
+        if (DELETE.equalsIgnoreCase(eventType)) {
+            lastConsumed.remove(cacheKey);
+        } else {
+            lastConsumed.put(cacheKey, new ConsumedFingerprint(fingerprint, partition));
+        }
+    }
+
+    /**
+     * Another consumer may apply newer states for keys of a revoked partition, so cached
+     * fingerprints for it are no longer trustworthy.
+     */
+    @Override
+    public void flushPartitions(Collection<TopicPartition> revoked) {
+        int before = lastConsumed.size();
+        synchronized (lastConsumed) {
+            lastConsumed.values().removeIf(seen -> revoked.contains(seen.partition()));
+        }
+        log.debug("Evicted {} fingerprints for revoked partitions {}", before - lastConsumed.size(), revoked);
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", config.isEnabled());
+        stats.put("producer_skip_enabled", config.getProducer().isSkipUnchanged());
+        stats.put("consumer_skip_enabled", config.getConsumer().isSkipUnchanged());
+        stats.put("producer_skipped", producerSkipped.get());
+        stats.put("consumer_skipped", consumerSkipped.get());
+        stats.put("producer_tracked_keys", lastPublished.size());
+        stats.put("consumer_tracked_keys", lastConsumed.size());
+        return stats;
+    }
+
+    public long getProducerSkipped() {
+        return producerSkipped.get();
+    }
+
+    public long getConsumerSkipped() {
+        return consumerSkipped.get();
+    }
+
+    private record ConsumedFingerprint(long fingerprint, TopicPartition partition) {}
+
+    private static <V> Map<String, V> boundedMap(int maxSize) {
+        return Collections.synchronizedMap(new LinkedHashMap<String, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+}
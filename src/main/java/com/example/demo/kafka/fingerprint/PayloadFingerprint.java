@@ -0,0 +1,64 @@
+package com.example.demo.kafka.fingerprint;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaNormalization;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.specific.SpecificDatumWriter;
+import org.apache.avro.specific.SpecificRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeader;
+
+/**
+ * 64-bit content fingerprint of an Avro payload, computed over its binary encoding
+ * (Avro binary is canonical for a given schema) with the Rabin fingerprint used by
+ * {@link SchemaNormalization}.
+ */
+public final class PayloadFingerprint {
+
+    private PayloadFingerprint() {}
+
+    private static final ThreadLocal<ByteArrayOutputStream> BUFFER =
+            ThreadLocal.withInitial(() -> new ByteArrayOutputStream(512));
+    private static final ThreadLocal<BinaryEncoder> ENCODER = new ThreadLocal<>();
+    private static final Map<Schema, SpecificDatumWriter<SpecificRecord>> WRITERS = new ConcurrentHashMap<>();
+
+    public static long of(SpecificRecord payload) {
+        ByteArrayOutputStream out = BUFFER.get();
+        out.reset();
+        BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, ENCODER.get());
+        ENCODER.set(encoder);
+        try {
+            WRITERS.computeIfAbsent(payload.getSchema(), SpecificDatumWriter::new).write(payload, encoder);
+            encoder.flush();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encode payload for fingerprint: " + payload.getSchema().getFullName(), e);
+        }
+        return SchemaNormalization.fingerprint64(out.toByteArray());
+    }
+
+    public static Header toHeader(String headerName, long fingerprint) {
+        return new RecordHeader(headerName, ByteBuffer.allocate(Long.BYTES).putLong(fingerprint).array());
+    }
+
+    /**
+     * @return the fingerprint carried in the given headers, or {@code null} if absent or malformed
+     */
+    public static Long fromHeaders(Headers headers, String headerName) {
+        if (headers == null) {
+            return null;
+        }
+        Header header = headers.lastHeader(headerName);
+        if (header == null || header.value() == null || header.value().length != Long.BYTES) {
+            return null;
+        }
+        return ByteBuffer.wrap(header.value()).getLong();
+    }
+}
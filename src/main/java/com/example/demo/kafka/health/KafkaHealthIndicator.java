@@ -114,12 +114,13 @@ public class KafkaHealthIndicator implements HealthIndicator {
         healthBuilder.withDetail("metrics.total_messages", totalMessages)
                     .withDetail("metrics.successful_messages", successfulMessages)
                     .withDetail("metrics.failed_messages", failedMessages)
-                    .withDetail("metrics.success_rate_percent", String.format("%.2f", successRate));
+                    .withDetail("metrics.success_rate_percent", String.format("%.2f", successRate))
+                    .withDetail("metrics.in_flight", kafkaEventProducer.getInFlight());
     }
 
     private void addCircuitBreakerStatus(Health.Builder healthBuilder) {
         boolean circuitBreakerOpen = kafkaEventProducer.isCircuitBreakerOpenStatus();
-        int circuitBreakerFailures = kafkaEventProducer.getCircuitBreakerFailures();
+        long circuitBreakerFailures = kafkaEventProducer.getCircuitBreakerFailures();
         
         healthBuilder.withDetail("circuit_breaker.open", circuitBreakerOpen)
                     .withDetail("circuit_breaker.failures", circuitBreakerFailures);
@@ -0,0 +1,95 @@
+package com.example.demo.kafka.metrics;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.record.TimestampType;
+import org.springframework.kafka.listener.BatchInterceptor;
+import org.springframework.kafka.listener.RecordInterceptor;
+
+/**
+ * Feeds {@link KafkaMetricsService} from the listener containers: serialized key/value size and
+ * record-timestamp-to-delivery latency when a record (or batch) is handed to the listener, and
+ * handler duration and outcome once the listener returns. Runs on the consumer thread, so the
+ * start time is kept in a per-thread holder instead of being allocated per record. Only
+ * exceptions that reach the container count as failures here; listeners that handle a failed
+ * record themselves report it through {@link KafkaMetricsService#recordConsumerFailure}.
+ */
+public class ConsumerMetricsInterceptor<K, V> implements RecordInterceptor<K, V>, BatchInterceptor<K, V> {
+
+    private final KafkaMetricsService kafkaMetricsService;
+    private final ThreadLocal<Invocation> invocation = ThreadLocal.withInitial(Invocation::new);
+
+    public ConsumerMetricsInterceptor(KafkaMetricsService kafkaMetricsService) {
+        this.kafkaMetricsService = kafkaMetricsService;
+    }
+
+    @Override
+    public ConsumerRecord<K, V> intercept(ConsumerRecord<K, V> record, Consumer<K, V> consumer) {
+        long now = System.currentTimeMillis();
+        recordDelivered(record, now);
+        start(record.topic());
+        return record;
+    }
+
+    @Override
+    public void success(ConsumerRecord<K, V> record, Consumer<K, V> consumer) {
+        finish(true);
+    }
+
+    @Override
+    public void failure(ConsumerRecord<K, V> record, Exception exception, Consumer<K, V> consumer) {
+        finish(false);
+    }
+
+    @Override
+    public ConsumerRecords<K, V> intercept(ConsumerRecords<K, V> records, Consumer<K, V> consumer) {
+        long now = System.currentTimeMillis();
+        String topic = null;
+        for (ConsumerRecord<K, V> record : records) {
+            recordDelivered(record, now);
+            if (topic == null) {
+                topic = record.topic();
+            }
+        }
+        start(topic);
+        return records;
+    }
+
+    @Override
+    public void success(ConsumerRecords<K, V> records, Consumer<K, V> consumer) {
+        finish(true);
+    }
+
+    @Override
+    public void failure(ConsumerRecords<K, V> records, Exception exception, Consumer<K, V> consumer) {
+        finish(false);
+    }
+
+    private void recordDelivered(ConsumerRecord<K, V> record, long now) {
+        long size = Math.max(0, record.serializedKeySize()) + Math.max(0, record.serializedValueSize());
+        long latencyMs = record.timestampType() != TimestampType.NO_TIMESTAMP_TYPE
+                ? Math.max(0, now - record.timestamp()) : 0;
+        kafkaMetricsService.recordConsumedRecord(record.topic(), size, latencyMs);
+    }
+
+    private void start(String topic) {
+        Invocation current = invocation.get();
+        current.topic = topic;
+        current.startNanos = System.nanoTime();
+    }
+
+    private void finish(boolean success) {
+        Invocation current = invocation.get();
+        if (current.topic == null) {
+            return;
+        }
+        kafkaMetricsService.recordConsumerOutcome(current.topic, System.nanoTime() - current.startNanos, success);
+        current.topic = null;
+    }
+
+    private static final class Invocation {
+        private String topic;
+        private long startNanos;
+    }
+}
@@ -8,6 +8,7 @@ import com.example.demo.kafka.producer.KafkaEventProducer;
 
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.concurrent.ConcurrentHashMap;
@@ -28,11 +29,14 @@ public class KafkaMetricsService {
     private final AtomicLong producerLatencyCount = new AtomicLong(0);
     private final AtomicInteger activeProducerConnections = new AtomicInteger(0);
 
-    // Consumer metrics
-    private final AtomicLong totalConsumerMessages = new AtomicLong(0);
-    private final AtomicLong totalConsumerBytes = new AtomicLong(0);
-    private final AtomicLong consumerLatencySum = new AtomicLong(0);
-    private final AtomicLong consumerLatencyCount = new AtomicLong(0);
+    // Consumer metrics, updated on every record: striped counters to avoid contention between container threads
+    private final LongAdder totalConsumerMessages = new LongAdder();
+    private final LongAdder totalConsumerBytes = new LongAdder();
+    private final LongAdder consumerLatencySum = new LongAdder();
+    private final LongAdder consumerLatencyCount = new LongAdder();
+    private final LongAdder consumerHandlerNanosSum = new LongAdder();
+    private final LongAdder consumerHandlerCount = new LongAdder();
+    private final LongAdder consumerFailures = new LongAdder();
     private final AtomicInteger activeConsumerConnections = new AtomicInteger(0);
     private final AtomicLong consumerLag = new AtomicLong(0);
 
@@ -66,19 +70,46 @@ public class KafkaMetricsService {
     }
 
     public void recordConsumerMessage(String topic, String key, long messageSize, long latencyMs) {
-        totalConsumerMessages.incrementAndGet();
-        totalConsumerBytes.addAndGet(messageSize);
-        consumerLatencySum.addAndGet(latencyMs);
-        consumerLatencyCount.incrementAndGet();
+        recordConsumedRecord(topic, messageSize, latencyMs);
+        log.debug("Recorded consumer message: topic={}, key={}, size={}, latency={}ms", 
+                 topic, key, messageSize, latencyMs);
+    }
 
-        TopicMetrics metrics = topicMetrics.computeIfAbsent(topic, k -> new TopicMetrics());
-        metrics.recordConsumerMessage(messageSize, latencyMs);
+    /**
+     * Hot-path variant used by the listener interceptors: no boxing, no logging.
+     * @param latencyMs time from the record timestamp to its delivery to the listener
+     */
+    public void recordConsumedRecord(String topic, long messageSize, long latencyMs) {
+        totalConsumerMessages.increment();
+        totalConsumerBytes.add(messageSize);
+        consumerLatencySum.add(latencyMs);
+        consumerLatencyCount.increment();
+        topicMetrics(topic).recordConsumerMessage(messageSize, latencyMs);
+    }
 
-        lastMessageTime.put(topic, System.currentTimeMillis());
-        topicMessageCounts.computeIfAbsent(topic, k -> new AtomicLong(0)).incrementAndGet();
+    /**
+     * Records how long the listener took for a record (or batch) and whether it succeeded.
+     */
+    public void recordConsumerOutcome(String topic, long handlerNanos, boolean success) {
+        consumerHandlerNanosSum.add(handlerNanos);
+        consumerHandlerCount.increment();
+        if (!success) {
+            recordConsumerFailure(topic);
+        }
+    }
 
-        log.debug("Recorded consumer message: topic={}, key={}, size={}, latency={}ms", 
-                 topic, key, messageSize, latencyMs);
+    /**
+     * Records a record the listener failed to process but handled itself, so the container
+     * (and {@link ConsumerMetricsInterceptor}) sees it as a success.
+     */
+    public void recordConsumerFailure(String topic) {
+        consumerFailures.increment();
+        topicMetrics(topic).recordConsumerFailure();
+    }
+
+    private TopicMetrics topicMetrics(String topic) {
+        TopicMetrics metrics = topicMetrics.get(topic);
+        return metrics != null ? metrics : topicMetrics.computeIfAbsent(topic, k -> new TopicMetrics());
     }
 
     public void recordError(String topic, String errorType, String errorMessage) {
@@ -130,9 +161,11 @@ public class KafkaMetricsService {
 
     public Map<String, Object> getConsumerMetrics() {
         Map<String, Object> metrics = new HashMap<>();
-        metrics.put("total_messages", totalConsumerMessages.get());
-        metrics.put("total_bytes", totalConsumerBytes.get());
-        metrics.put("average_latency_ms", getAverageLatency(consumerLatencySum.get(), consumerLatencyCount.get()));
+        metrics.put("total_messages", totalConsumerMessages.sum());
+        metrics.put("total_bytes", totalConsumerBytes.sum());
+        metrics.put("average_latency_ms", getAverageLatency(consumerLatencySum.sum(), consumerLatencyCount.sum()));
+        metrics.put("average_handler_ms", getAverageLatency(consumerHandlerNanosSum.sum(), consumerHandlerCount.sum()) / 1_000_000);
+        metrics.put("failed_messages", consumerFailures.sum());
         metrics.put("active_connections", activeConsumerConnections.get());
         metrics.put("consumer_lag", consumerLag.get());
         return metrics;
@@ -161,9 +194,11 @@ public class KafkaMetricsService {
         result.put("consumer_bytes", metrics.getConsumerBytes());
         result.put("producer_latency_ms", metrics.getProducerLatency());
         result.put("consumer_latency_ms", metrics.getConsumerLatency());
+        result.put("consumer_failures", metrics.getConsumerFailures());
         result.put("errors", metrics.getErrors());
         result.put("consumer_lag", metrics.getConsumerLag());
         result.put("last_message_time", lastMessageTime.getOrDefault(topic, 0L));
+        result.put("last_consumed_time", metrics.getLastConsumedTime());
         result.put("message_count", topicMessageCounts.getOrDefault(topic, new AtomicLong(0)).get());
         return result;
     }
@@ -191,7 +226,7 @@ public class KafkaMetricsService {
     }
 
     private double calculateErrorRate() {
-        long totalMessages = totalProducerMessages.get() + totalConsumerMessages.get();
+        long totalMessages = totalProducerMessages.get() + totalConsumerMessages.sum();
         return totalMessages > 0 ? (double) totalErrors.get() / totalMessages * 100 : 0.0;
     }
 
@@ -203,13 +238,15 @@ public class KafkaMetricsService {
     // Inner class for topic-specific metrics
     private static class TopicMetrics {
         private final AtomicLong producerMessages = new AtomicLong(0);
-        private final AtomicLong consumerMessages = new AtomicLong(0);
+        private final LongAdder consumerMessages = new LongAdder();
         private final AtomicLong producerBytes = new AtomicLong(0);
-        private final AtomicLong consumerBytes = new AtomicLong(0);
+        private final LongAdder consumerBytes = new LongAdder();
         private final AtomicLong producerLatencySum = new AtomicLong(0);
         private final AtomicLong producerLatencyCount = new AtomicLong(0);
-        private final AtomicLong consumerLatencySum = new AtomicLong(0);
-        private final AtomicLong consumerLatencyCount = new AtomicLong(0);
+        private final LongAdder consumerLatencySum = new LongAdder();
+        private final LongAdder consumerLatencyCount = new LongAdder();
+        private final LongAdder consumerFailures = new LongAdder();
+        private volatile long lastConsumedTime = 0;
         private final AtomicLong errors = new AtomicLong(0);
         private final AtomicLong consumerLag = new AtomicLong(0);
 
@@ -221,10 +258,15 @@ public class KafkaMetricsService {
         }
 
         public void recordConsumerMessage(long messageSize, long latencyMs) {
-            consumerMessages.incrementAndGet();
-            consumerBytes.addAndGet(messageSize);
-            consumerLatencySum.addAndGet(latencyMs);
-            consumerLatencyCount.incrementAndGet();
+            consumerMessages.increment();
+            consumerBytes.add(messageSize);
+            consumerLatencySum.add(latencyMs);
+            consumerLatencyCount.increment();
+            lastConsumedTime = System.currentTimeMillis();
+        }
+
+        public void recordConsumerFailure() {
+            consumerFailures.increment();
         }
 
         public void recordError(String errorType) {
@@ -237,15 +279,18 @@ public class KafkaMetricsService {
 
         // Getters
         public long getProducerMessages() { return producerMessages.get(); }
-        public long getConsumerMessages() { return consumerMessages.get(); }
+        public long getConsumerMessages() { return consumerMessages.sum(); }
         public long getProducerBytes() { return producerBytes.get(); }
-        public long getConsumerBytes() { return consumerBytes.get(); }
+        public long getConsumerBytes() { return consumerBytes.sum(); }
         public double getProducerLatency() { 
             return producerLatencyCount.get() > 0 ? (double) producerLatencySum.get() / producerLatencyCount.get() : 0.0; 
         }
         public double getConsumerLatency() { 
-            return consumerLatencyCount.get() > 0 ? (double) consumerLatencySum.get() / consumerLatencyCount.get() : 0.0; 
+            long count = consumerLatencyCount.sum();
+            return count > 0 ? (double) consumerLatencySum.sum() / count : 0.0; 
         }
+        public long getConsumerFailures() { return consumerFailures.sum(); }
+        public long getLastConsumedTime() { return lastConsumedTime; }
         public long getErrors() { return errors.get(); }
         public long getConsumerLag() { return consumerLag.get(); }
     }
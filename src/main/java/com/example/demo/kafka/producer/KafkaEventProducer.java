@@ -1,5 +1,10 @@
 package com.example.demo.kafka.producer;
 
+import org.apache.avro.specific.SpecificRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.errors.RetriableException;
+import org.apache.kafka.common.header.Header;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.retry.annotation.Backoff;
@@ -7,137 +12,392 @@ import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Component;
 
 import com.example.avro.AvroEventWrapper;
+import com.example.demo.kafka.config.EnvelopeConfig;
+import com.example.demo.kafka.config.ProducerCircuitBreakerConfig;
+import com.example.demo.kafka.config.ProducerInFlightConfig;
+import com.example.demo.kafka.factory.EventHeaders;
 import com.example.demo.kafka.factory.EventWrapper;
+import com.example.demo.kafka.producer.breaker.TopicCircuitBreaker;
+import com.example.demo.kafka.producer.breaker.TopicCircuitBreakers;
+import com.example.demo.kafka.producer.profile.ProducerProfileTemplates;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 @RequiredArgsConstructor
 @Slf4j
 @Component
 public class KafkaEventProducer {
 
-    private final KafkaTemplate<String, Object> jsonKafkaTemplate;
-    private final KafkaTemplate<String, Object> avroKafkaTemplate;
-    private final KafkaTemplate<String, String> stringKafkaTemplate;
+    private final ProducerInFlightConfig inFlightConfig;
+    private final ProducerCircuitBreakerConfig circuitBreakerConfig;
+    private final TopicCircuitBreakers circuitBreakers;
+    private final ProducerProfileTemplates profileTemplates;
+    private final EnvelopeConfig envelopeConfig;
+
+    private Semaphore inFlightSlots;
+    // Batch sends waiting for an in-flight slot, dispatched in order as slots are released
+    private final Queue<Runnable> pendingSends = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicInteger drainRequests = new AtomicInteger();
+    private ExecutorService callbackExecutor;
+    private ScheduledExecutorService retryScheduler;
 
     // Metrics and monitoring
     private final AtomicLong totalMessagesSent = new AtomicLong(0);
     private final AtomicLong successfulMessages = new AtomicLong(0);
     private final AtomicLong failedMessages = new AtomicLong(0);
-    private final AtomicInteger circuitBreakerFailures = new AtomicInteger(0);
-    private static final int CIRCUIT_BREAKER_THRESHOLD = 10;
-    private static final long CIRCUIT_BREAKER_RESET_TIME = TimeUnit.MINUTES.toMillis(5);
-    private volatile long lastFailureTime = 0;
-
-    public <T> void sendAvro(String topic, String key, AvroEventWrapper event) {
-        if (isCircuitBreakerOpen()) {
-            log.warn("Circuit breaker is open, skipping message to topic: {}", topic);
-            return;
+    private final AtomicLong retriedMessages = new AtomicLong(0);
+    // Serialized value bytes per value type, to compare envelope versions
+    private final Map<String, LongAdder[]> valueBytes = new ConcurrentHashMap<>();
+
+    public CompletableFuture<RecordMetadata> sendAvro(String topic, String key, AvroEventWrapper event) {
+        return sendAvro(topic, key, event, List.of());
+    }
+
+    public CompletableFuture<RecordMetadata> sendAvro(String topic, String key, AvroEventWrapper event, Iterable<Header> headers) {
+        return sendAvro(null, topic, key, event, headers);
+    }
+
+    /**
+     * Sends through the templates of the named producer profile; {@code null} uses the defaults.
+     * The event is a v1 or v2 envelope.
+     */
+    public CompletableFuture<RecordMetadata> sendAvro(String profile, String topic, String key, SpecificRecord event, Iterable<Header> headers) {
+        log.info("Entry @class KafkaEventProducer @method sendAvro topic [{}] with key [{}] and profile [{}]: {}", topic, key, profile, event);
+        return send(profileTemplates.avroTemplate(profile), new ProducerRecord<>(topic, null, key, event, headers), "Avro", true);
+    }
+
+    public <T> CompletableFuture<RecordMetadata> sendJson(String topic, String key, EventWrapper<T> event) {
+        return sendJson(null, topic, key, event);
+    }
+
+    public <T> CompletableFuture<RecordMetadata> sendJson(String profile, String topic, String key, EventWrapper<T> event) {
+        log.info("Producing JSON event to topic [{}] with key [{}] and profile [{}]: {}", topic, key, profile, event);
+        return send(profileTemplates.jsonTemplate(profile), new ProducerRecord<>(topic, key, event), "JSON", true);
+    }
+
+    @Retryable(maxAttempts = 3, backoff = @Backoff(delay = 1000, multiplier = 2.0))
+    public CompletableFuture<RecordMetadata> sendString(String topic, String key, String value) {
+        return sendString(null, topic, key, value);
+    }
+
+    public CompletableFuture<RecordMetadata> sendString(String profile, String topic, String key, String value) {
+        log.info("Producing String event to topic [{}] with key [{}] and profile [{}]: {}", topic, key, profile, value);
+        return send(profileTemplates.stringTemplate(profile), new ProducerRecord<>(topic, key, value), "String", true);
+    }
+
+    public List<CompletableFuture<RecordMetadata>> sendAvroAll(List<ProducerRecord<String, Object>> records) {
+        return sendAvroAll(null, records);
+    }
+
+    public List<CompletableFuture<RecordMetadata>> sendAvroAll(String profile, List<ProducerRecord<String, Object>> records) {
+        return sendAll(profileTemplates.avroTemplate(profile), records, "Avro");
+    }
+
+    public List<CompletableFuture<RecordMetadata>> sendJsonAll(List<ProducerRecord<String, Object>> records) {
+        return sendJsonAll(null, records);
+    }
+
+    public List<CompletableFuture<RecordMetadata>> sendJsonAll(String profile, List<ProducerRecord<String, Object>> records) {
+        return sendAll(profileTemplates.jsonTemplate(profile), records, "JSON");
+    }
+
+    public List<CompletableFuture<RecordMetadata>> sendStringAll(List<ProducerRecord<String, String>> records) {
+        return sendStringAll(null, records);
+    }
+
+    public List<CompletableFuture<RecordMetadata>> sendStringAll(String profile, List<ProducerRecord<String, String>> records) {
+        return sendAll(profileTemplates.stringTemplate(profile), records, "String");
+    }
+
+    /**
+     * Hands a batch of records to the template back to back, with one log line for the batch.
+     * A record that cannot be sent fails its own future without stopping the rest. The caller
+     * never waits for in-flight slots here: once no slot is free, the rest of the batch is queued
+     * and sent in order from completion callbacks as slots are released, so a batch larger than
+     * the in-flight limit neither blocks the caller nor loses its tail.
+     * @return one future per record, in order
+     */
+    private <V> List<CompletableFuture<RecordMetadata>> sendAll(KafkaTemplate<String, V> template,
+                                                               List<ProducerRecord<String, V>> records, String format) {
+        if (records.isEmpty()) {
+            return List.of();
+        }
+        String topic = records.get(0).topic();
+        if (circuitBreakers.forTopic(topic).isOpen()) {
+            log.warn("Circuit breaker is open, skipping {} messages to topic: {}", records.size(), topic);
+            return Collections.nCopies(records.size(),
+                    CompletableFuture.failedFuture(new IllegalStateException("Circuit breaker is open for topic " + topic)));
         }
 
-        log.info("Entry @class KafkaEventProducer @method sendAvro topic [{}] with key [{}]: {}", topic, key, event);
-        totalMessagesSent.incrementAndGet();
-        
-        CompletableFuture<SendResult<String, Object>> future = avroKafkaTemplate.send(topic, key, event);
-    
-        future.whenComplete((result, ex) -> {
-            if (ex != null) {
-                handleFailure(topic, key, ex, "Avro");
-                log.error("Failed @class KafkaEventProducer @method sendAvro to topic [{}] with key [{}]: {}", 
-                         topic, key, ex.getMessage());
+        log.info("Entry @class KafkaEventProducer @method sendAll {} batch of [{}] records to topic [{}]", format, records.size(), topic);
+        List<CompletableFuture<RecordMetadata>> futures = new ArrayList<>(records.size());
+        int queued = 0;
+        for (ProducerRecord<String, V> record : records) {
+            CompletableFuture<RecordMetadata> outcome = new CompletableFuture<>();
+            // Once one record is queued the rest follow it, so the batch keeps its order
+            if (queued == 0 && pendingSends.isEmpty() && inFlightSlots.tryAcquire()) {
+                dispatch(template, record, format, false, outcome);
             } else {
-                handleSuccess();
-                log.info("Successfully @class KafkaEventProducer @method sendAvro topic [{}] with offset [{}]", 
-                         topic, result.getRecordMetadata().offset());
+                pendingCount.incrementAndGet();
+                pendingSends.add(() -> dispatch(template, record, format, false, outcome));
+                queued++;
             }
-        });
+            futures.add(outcome);
+        }
+        if (queued > 0) {
+            log.info("In-flight limit of {} sends reached, queued {} of {} {} records to topic [{}]",
+                    inFlightConfig.getMaxInFlight(), queued, records.size(), format, topic);
+        }
+        drainPendingSends();
+        long rejected = futures.stream().filter(CompletableFuture::isCompletedExceptionally).count();
+        if (rejected > 0) {
+            log.warn("{} of {} {} records to topic [{}] rejected without being sent (circuit breaker)",
+                    rejected, records.size(), format, topic);
+        }
+        return futures;
     }
 
-    public <T> void sendJson(String topic, String key, EventWrapper<T> event) {
-        if (isCircuitBreakerOpen()) {
-            log.warn("Circuit breaker is open, skipping message to topic: {}", topic);
-            return;
+    /**
+     * Sends one record once an in-flight slot is free (waiting up to the acquire timeout for
+     * one) and the topic's circuit breaker lets it through. Transient failures of unkeyed records are retried with jittered exponential
+     * backoff while the breaker stays closed; the slot is held until the final outcome, so
+     * retries count against the in-flight bound. Keyed records are not retried here: a re-send
+     * would land behind records of the same key sent in the meantime, so they rely on the
+     * producer's own {@code retries} within {@code delivery.timeout.ms}, which keep per-partition
+     * order with idempotence enabled, and fail once those are exhausted. Outcome handling and completion of the returned future run on the
+     * callback executor, so callers' dependent stages never run on the producer I/O thread.
+     * The executor queue needs no bound of its own: it never holds more tasks than there are
+     * in-flight sends. Envelope metadata is copied into the record headers once, before the
+     * first attempt.
+     */
+    private <V> CompletableFuture<RecordMetadata> send(KafkaTemplate<String, V> template, ProducerRecord<String, V> record,
+                                                       String format, boolean single) {
+        String topic = record.topic();
+        if (!acquireInFlightSlot(topic)) {
+            failedMessages.incrementAndGet();
+            return CompletableFuture.failedFuture(new IllegalStateException("In-flight limit of "
+                    + inFlightConfig.getMaxInFlight() + " sends reached, message to topic " + topic + " not sent"));
         }
+        CompletableFuture<RecordMetadata> outcome = new CompletableFuture<>();
+        dispatch(template, record, format, single, outcome);
+        drainPendingSends();
+        return outcome;
+    }
 
-        log.info("Producing JSON event to topic [{}] with key [{}]: {}", topic, key, event);
+    // Sends a record holding an in-flight slot; the slot is given back if the breaker rejects it
+    private <V> void dispatch(KafkaTemplate<String, V> template, ProducerRecord<String, V> record, String format,
+                              boolean single, CompletableFuture<RecordMetadata> outcome) {
+        String topic = record.topic();
+        TopicCircuitBreaker breaker = circuitBreakers.forTopic(topic);
+        if (!breaker.tryAcquire()) {
+            // Not releaseSlot(): callers drain the queue themselves, which avoids recursing per record
+            inFlightSlots.release();
+            failedMessages.incrementAndGet();
+            // Batches log once for all their records
+            if (single) {
+                log.warn("Circuit breaker is open, skipping message to topic: {}", topic);
+            }
+            outcome.completeExceptionally(new IllegalStateException("Circuit breaker is open for topic " + topic));
+            return;
+        }
         totalMessagesSent.incrementAndGet();
-        
-        CompletableFuture<SendResult<String, Object>> future = jsonKafkaTemplate.send(topic, key, event);
+        if (envelopeConfig.isMetadataHeaders()) {
+            EventHeaders.addTo(record.headers(), record.value(), System.currentTimeMillis());
+        }
+        attempt(template, record, format, single, breaker, 1, outcome);
+    }
 
-        future.whenComplete((result, ex) -> {
-            if (ex != null) {
-                handleFailure(topic, key, ex, "JSON");
-                log.error("Failed to send JSON message to topic [{}] with key [{}]: {}", topic, key, ex.getMessage());
-            } else {
-                handleSuccess();
-                log.info("Successfully sent JSON message to topic [{}] with offset [{}]", topic, result.getRecordMetadata().offset());
-            }
-        });
+    private void releaseSlot() {
+        inFlightSlots.release();
+        drainPendingSends();
     }
 
-    @Retryable(maxAttempts = 3, backoff = @Backoff(delay = 1000, multiplier = 2.0))
-    public void sendString(String topic, String key, String value) {
-        if (isCircuitBreakerOpen()) {
-            log.warn("Circuit breaker is open, skipping message to topic: {}", topic);
+    /**
+     * Dispatches queued batch sends while slots are free. Only one thread drains at a time, so
+     * queued records reach the template in queue order; a drain requested while another runs
+     * makes that one go round again, so a send queued concurrently with the last release is
+     * not left waiting.
+     */
+    private void drainPendingSends() {
+        if (drainRequests.getAndIncrement() != 0) {
             return;
         }
+        int missed = 1;
+        do {
+            while (!pendingSends.isEmpty() && inFlightSlots.tryAcquire()) {
+                Runnable next = pendingSends.poll();
+                if (next == null) {
+                    inFlightSlots.release();
+                    break;
+                }
+                pendingCount.decrementAndGet();
+                next.run();
+            }
+            missed = drainRequests.addAndGet(-missed);
+        } while (missed != 0);
+    }
 
-        log.info("Producing String event to topic [{}] with key [{}]: {}", topic, key, value);
-        totalMessagesSent.incrementAndGet();
-        
-        CompletableFuture<SendResult<String, String>> future = stringKafkaTemplate.send(topic, key, value);
-
-        future.whenComplete((result, ex) -> {
-            if (ex != null) {
-                handleFailure(topic, key, ex, "String");
-                log.error("Failed to send String message to topic [{}] with key [{}]: {}", topic, key, ex.getMessage());
-            } else {
+    private <V> void attempt(KafkaTemplate<String, V> template, ProducerRecord<String, V> record, String format,
+                             boolean single, TopicCircuitBreaker breaker, int attempt, CompletableFuture<RecordMetadata> outcome) {
+        CompletableFuture<SendResult<String, V>> future;
+        try {
+            future = template.send(record);
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        future.whenCompleteAsync((result, ex) -> {
+            if (ex == null) {
+                breaker.onSuccess();
                 handleSuccess();
-                log.info("Successfully sent String message to topic [{}] with offset [{}]", topic, result.getRecordMetadata().offset());
+                recordValueSize(record.value(), result.getRecordMetadata().serializedValueSize());
+                if (single) {
+                    log.info("Successfully sent {} message to topic [{}] with offset [{}]",
+                            format, record.topic(), result.getRecordMetadata().offset());
+                }
+                outcome.complete(result.getRecordMetadata());
+                releaseSlot();
+                return;
             }
-        });
+            Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+            breaker.onFailure();
+            if (record.key() == null && attempt < circuitBreakerConfig.getRetry().getMaxAttempts()
+                    && isTransient(cause) && breaker.isClosed()) {
+                long delayMs = backoffMs(attempt);
+                retriedMessages.incrementAndGet();
+                log.warn("Transient failure sending {} message to topic [{}] with key [{}], retry {}/{} in {} ms: {}",
+                        format, record.topic(), record.key(), attempt, circuitBreakerConfig.getRetry().getMaxAttempts() - 1,
+                        delayMs, cause.getMessage());
+                try {
+                    retryScheduler.schedule(() -> attempt(template, record, format, single, breaker, attempt + 1, outcome),
+                            delayMs, TimeUnit.MILLISECONDS);
+                    return;
+                } catch (RejectedExecutionException rejected) {
+                    log.warn("Retry scheduler is shut down, not retrying message to topic [{}]", record.topic());
+                }
+            }
+            handleFailure(record.topic(), record.key(), cause, format);
+            outcome.completeExceptionally(cause);
+            releaseSlot();
+        }, callbackExecutor);
     }
 
-    // Circuit breaker implementation
-    private boolean isCircuitBreakerOpen() {
-        if (circuitBreakerFailures.get() >= CIRCUIT_BREAKER_THRESHOLD) {
-            long timeSinceLastFailure = System.currentTimeMillis() - lastFailureTime;
-            if (timeSinceLastFailure < CIRCUIT_BREAKER_RESET_TIME) {
-                return true; // Circuit breaker is open
-            } else {
-                // Reset circuit breaker
-                circuitBreakerFailures.set(0);
-                log.info("Circuit breaker reset after {} ms", timeSinceLastFailure);
+    private static boolean isTransient(Throwable failure) {
+        for (Throwable t = failure; t != null; t = t.getCause()) {
+            if (t instanceof RetriableException) {
+                return true;
+            }
+            if (t.getCause() == t) {
+                break;
             }
         }
         return false;
     }
 
+    // Exponential backoff; the jitter fraction of it is randomized so retries of a burst spread out
+    private long backoffMs(int attempt) {
+        ProducerCircuitBreakerConfig.Retry retry = circuitBreakerConfig.getRetry();
+        double backoff = Math.min(retry.getMaxBackoffMs(),
+                retry.getInitialBackoffMs() * Math.pow(retry.getMultiplier(), attempt - 1));
+        double jitter = Math.max(0, Math.min(1, retry.getJitter()));
+        return (long) (backoff * (1 - jitter) + ThreadLocalRandom.current().nextDouble() * backoff * jitter);
+    }
+
+    private boolean acquireInFlightSlot(String topic) {
+        try {
+            if (inFlightSlots.tryAcquire(inFlightConfig.getAcquireTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+            log.warn("In-flight limit of {} sends reached for {} ms, rejecting message to topic: {}",
+                    inFlightConfig.getMaxInFlight(), inFlightConfig.getAcquireTimeoutMs(), topic);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while waiting for an in-flight slot, rejecting message to topic: {}", topic);
+        }
+        return false;
+    }
+
     private void handleFailure(String topic, String key, Throwable ex, String format) {
         failedMessages.incrementAndGet();
-        circuitBreakerFailures.incrementAndGet();
-        lastFailureTime = System.currentTimeMillis();
-        
         log.error("Failed to send {} message to topic [{}] with key [{}]: {}", 
                  format, topic, key, ex.getMessage());
     }
 
     private void handleSuccess() {
         successfulMessages.incrementAndGet();
-        // Reset circuit breaker on success
-        if (circuitBreakerFailures.get() > 0) {
-            circuitBreakerFailures.decrementAndGet();
+    }
+
+    private void recordValueSize(Object value, int serializedSize) {
+        if (value == null || serializedSize < 0) {
+            return;
         }
+        LongAdder[] counters = valueBytes.computeIfAbsent(value.getClass().getSimpleName(),
+                k -> new LongAdder[] {new LongAdder(), new LongAdder()});
+        counters[0].increment();
+        counters[1].add(serializedSize);
+    }
+
+    @PostConstruct
+    void init() {
+        this.inFlightSlots = new Semaphore(inFlightConfig.getMaxInFlight());
+        AtomicInteger threadCount = new AtomicInteger();
+        this.callbackExecutor = Executors.newFixedThreadPool(Math.max(1, inFlightConfig.getCallbackThreads()), r -> {
+            Thread thread = new Thread(r, "producer-callback-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "producer-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        retryScheduler.shutdown();
+        callbackExecutor.shutdown();
     }
 
     // Metrics and monitoring methods
+    public int getInFlight() {
+        return inFlightConfig.getMaxInFlight() - inFlightSlots.availablePermits();
+    }
+
+    public int getMaxInFlight() {
+        return inFlightConfig.getMaxInFlight();
+    }
+
+    // Batch sends waiting for an in-flight slot
+    public int getQueuedSends() {
+        return pendingCount.get();
+    }
+
     public long getTotalMessagesSent() {
         return totalMessagesSent.get();
     }
@@ -155,11 +415,44 @@ public class KafkaEventProducer {
         return total > 0 ? (double) successfulMessages.get() / total * 100 : 0.0;
     }
 
+    // Messages and average serialized value bytes per value type (e.g. AvroEventWrapper vs AvroEventWrapperV2)
+    public Map<String, Object> getValueSizes() {
+        Map<String, Object> sizes = new HashMap<>();
+        valueBytes.forEach((type, counters) -> {
+            long messages = counters[0].sum();
+            long bytes = counters[1].sum();
+            sizes.put(type, Map.of("messages", messages, "avg_bytes", messages > 0 ? (double) bytes / messages : 0.0));
+        });
+        return sizes;
+    }
+
+    public long getRetriedMessages() {
+        return retriedMessages.get();
+    }
+
+    // True if the breaker of any topic is not closed
     public boolean isCircuitBreakerOpenStatus() {
-        return isCircuitBreakerOpen();
+        return circuitBreakers.anyOpen();
+    }
+
+    // Failures inside the current window, summed over all topics
+    public long getCircuitBreakerFailures() {
+        return circuitBreakers.windowFailures();
+    }
+
+    public Map<String, Object> getProfileStatus() {
+        return profileTemplates.getStatus();
+    }
+
+    public Map<String, Object> getCircuitBreakerStatus() {
+        return circuitBreakers.getStatus();
+    }
+
+    public void resetCircuitBreakers() {
+        circuitBreakers.resetAll();
     }
 
-    public int getCircuitBreakerFailures() {
-        return circuitBreakerFailures.get();
+    public boolean resetCircuitBreaker(String topic) {
+        return circuitBreakers.reset(topic);
     }
 }
@@ -0,0 +1,207 @@
+package com.example.demo.kafka.producer.breaker;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.example.demo.kafka.config.ProducerCircuitBreakerConfig;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Circuit breaker of one topic. Outcomes are counted in a ring of time buckets covering the
+ * sliding window; the breaker opens when the failure rate over the window reaches the
+ * threshold, lets a few probe sends through after the open period, and closes once they all
+ * succeed. All state changes are CAS based, so sends never take a lock. Counts are approximate
+ * at bucket boundaries, where a bucket is recycled concurrently with increments.
+ */
+@Slf4j
+public class TopicCircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private record Phase(State state, long sinceMillis, AtomicInteger probePermits, AtomicInteger probeSuccesses) {}
+
+    private final String topic;
+    private final ProducerCircuitBreakerConfig config;
+    private final long bucketMs;
+    private final AtomicLongArray bucketEpochs;
+    private final AtomicLongArray bucketSuccesses;
+    private final AtomicLongArray bucketFailures;
+    private final AtomicReference<Phase> phase;
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder opened = new LongAdder();
+
+    TopicCircuitBreaker(String topic, ProducerCircuitBreakerConfig config) {
+        this.topic = topic;
+        this.config = config;
+        int buckets = Math.max(1, config.getWindowBuckets());
+        this.bucketMs = Math.max(1, config.getWindowMs() / buckets);
+        this.bucketEpochs = new AtomicLongArray(buckets);
+        this.bucketSuccesses = new AtomicLongArray(buckets);
+        this.bucketFailures = new AtomicLongArray(buckets);
+        this.phase = new AtomicReference<>(closed());
+    }
+
+    /**
+     * @return true if a send may go out now; in half-open state this takes one probe permit
+     */
+    public boolean tryAcquire() {
+        if (!config.isEnabled()) {
+            return true;
+        }
+        while (true) {
+            Phase current = phase.get();
+            switch (current.state()) {
+                case CLOSED:
+                    return true;
+                case OPEN:
+                    if (System.currentTimeMillis() - current.sinceMillis() < config.getOpenMs()) {
+                        rejected.increment();
+                        return false;
+                    }
+                    if (phase.compareAndSet(current, halfOpen())) {
+                        log.info("Circuit breaker for topic [{}] half-open, letting {} probe sends through", topic, probes());
+                    }
+                    continue;
+                default:
+                    AtomicInteger permits = current.probePermits();
+                    int available = permits.get();
+                    while (available > 0) {
+                        if (permits.compareAndSet(available, available - 1)) {
+                            return true;
+                        }
+                        available = permits.get();
+                    }
+                    rejected.increment();
+                    return false;
+            }
+        }
+    }
+
+    public boolean isClosed() {
+        return !config.isEnabled() || phase.get().state() == State.CLOSED;
+    }
+
+    /**
+     * @return true while open and not yet due for probing
+     */
+    public boolean isOpen() {
+        Phase current = phase.get();
+        return config.isEnabled() && current.state() == State.OPEN
+                && System.currentTimeMillis() - current.sinceMillis() < config.getOpenMs();
+    }
+
+    public void onSuccess() {
+        record(bucketSuccesses);
+        Phase current = phase.get();
+        if (current.state() == State.HALF_OPEN
+                && current.probeSuccesses().incrementAndGet() >= probes()
+                && phase.compareAndSet(current, closed())) {
+            clearWindow();
+            log.info("Circuit breaker for topic [{}] closed after {} successful probes", topic, probes());
+        }
+    }
+
+    public void onFailure() {
+        record(bucketFailures);
+        Phase current = phase.get();
+        if (current.state() == State.HALF_OPEN) {
+            if (phase.compareAndSet(current, open())) {
+                opened.increment();
+                log.warn("Circuit breaker for topic [{}] reopened after a failed probe", topic);
+            }
+        } else if (current.state() == State.CLOSED && config.isEnabled()) {
+            long[] counts = windowCounts();
+            long calls = counts[0] + counts[1];
+            if (calls >= config.getMinimumCalls() && counts[1] >= calls * config.getFailureRateThreshold()
+                    && phase.compareAndSet(current, open())) {
+                opened.increment();
+                log.warn("Circuit breaker for topic [{}] opened: {} of {} sends failed in the last {} ms",
+                        topic, counts[1], calls, config.getWindowMs());
+            }
+        }
+    }
+
+    public void reset() {
+        phase.set(closed());
+        clearWindow();
+        log.info("Circuit breaker for topic [{}] reset", topic);
+    }
+
+    private void record(AtomicLongArray counter) {
+        long epoch = System.currentTimeMillis() / bucketMs;
+        int index = (int) (epoch % bucketEpochs.length());
+        long seen = bucketEpochs.get(index);
+        if (seen != epoch && bucketEpochs.compareAndSet(index, seen, epoch)) {
+            bucketSuccesses.set(index, 0);
+            bucketFailures.set(index, 0);
+        }
+        counter.incrementAndGet(index);
+    }
+
+    // {successes, failures} over the buckets still inside the window
+    private long[] windowCounts() {
+        long epoch = System.currentTimeMillis() / bucketMs;
+        long successes = 0;
+        long failures = 0;
+        for (int i = 0; i < bucketEpochs.length(); i++) {
+            if (epoch - bucketEpochs.get(i) < bucketEpochs.length()) {
+                successes += bucketSuccesses.get(i);
+                failures += bucketFailures.get(i);
+            }
+        }
+        return new long[] {successes, failures};
+    }
+
+    private void clearWindow() {
+        for (int i = 0; i < bucketEpochs.length(); i++) {
+            bucketEpochs.set(i, 0);
+            bucketSuccesses.set(i, 0);
+            bucketFailures.set(i, 0);
+        }
+    }
+
+    private Phase closed() {
+        return new Phase(State.CLOSED, System.currentTimeMillis(), null, null);
+    }
+
+    private Phase open() {
+        return new Phase(State.OPEN, System.currentTimeMillis(), null, null);
+    }
+
+    private Phase halfOpen() {
+        return new Phase(State.HALF_OPEN, System.currentTimeMillis(),
+                new AtomicInteger(probes()), new AtomicInteger());
+    }
+
+    private int probes() {
+        return Math.max(1, config.getHalfOpenProbes());
+    }
+
+    public State getState() {
+        return phase.get().state();
+    }
+
+    public Map<String, Object> getStatus() {
+        Phase current = phase.get();
+        long[] counts = windowCounts();
+        long calls = counts[0] + counts[1];
+        Map<String, Object> status = new HashMap<>();
+        status.put("state", current.state());
+        status.put("state_since", current.sinceMillis());
+        status.put("window_calls", calls);
+        status.put("window_failures", counts[1]);
+        status.put("window_failure_rate", calls > 0 ? (double) counts[1] / calls : 0.0);
+        status.put("rejected", rejected.sum());
+        status.put("times_opened", opened.sum());
+        return status;
+    }
+
+    long getWindowFailures() {
+        return windowCounts()[1];
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.demo.kafka.producer.breaker;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+import com.example.demo.kafka.config.ProducerCircuitBreakerConfig;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * One {@link TopicCircuitBreaker} per topic, created on first send, so failures on one topic
+ * never stop publishing to the others.
+ */
+@Component
+@RequiredArgsConstructor
+public class TopicCircuitBreakers {
+
+    private final ProducerCircuitBreakerConfig config;
+    private final Map<String, TopicCircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    public TopicCircuitBreaker forTopic(String topic) {
+        TopicCircuitBreaker breaker = breakers.get(topic);
+        return breaker != null ? breaker : breakers.computeIfAbsent(topic, t -> new TopicCircuitBreaker(t, config));
+    }
+
+    public boolean anyOpen() {
+        return breakers.values().stream().anyMatch(breaker -> breaker.getState() != TopicCircuitBreaker.State.CLOSED);
+    }
+
+    public long windowFailures() {
+        return breakers.values().stream().mapToLong(TopicCircuitBreaker::getWindowFailures).sum();
+    }
+
+    public void resetAll() {
+        breakers.values().forEach(TopicCircuitBreaker::reset);
+    }
+
+    /**
+     * @return false if no breaker exists for the topic
+     */
+    public boolean reset(String topic) {
+        TopicCircuitBreaker breaker = breakers.get(topic);
+        if (breaker == null) {
+            return false;
+        }
+        breaker.reset();
+        return true;
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new HashMap<>();
+        breakers.forEach((topic, breaker) -> status.put(topic, breaker.getStatus()));
+        return status;
+    }
+}
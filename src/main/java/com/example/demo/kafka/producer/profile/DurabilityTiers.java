@@ -0,0 +1,75 @@
+package com.example.demo.kafka.producer.profile;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+import com.example.demo.kafka.config.KafkaEventFormat;
+import com.example.demo.kafka.config.ProducerDurabilityConfig;
+import com.example.demo.kafka.config.ProducerDurabilityConfig.DurabilityTier;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Maps (entity, event type, format) to the producer profile of its durability tier, so only
+ * events that must not be lost pay for acks=all and idempotence. Tiers are matched in
+ * configuration order and the result is cached per combination.
+ */
+@Slf4j
+@Component
+public class DurabilityTiers {
+
+    private static final String DEFAULT_TEMPLATES = "";
+
+    private final ProducerDurabilityConfig config;
+    private final Map<String, String> resolved = new ConcurrentHashMap<>();
+
+    public DurabilityTiers(ProducerDurabilityConfig config, ProducerProfileTemplates profileTemplates) {
+        this.config = config;
+        if (config.getDefaultProfile() != null && !profileTemplates.hasProfile(config.getDefaultProfile())) {
+            throw new IllegalStateException("Durability default-profile refers to unknown producer profile: " + config.getDefaultProfile());
+        }
+        config.getTiers().forEach((name, tier) -> {
+            if (tier.getProfile() == null || !profileTemplates.hasProfile(tier.getProfile())) {
+                throw new IllegalStateException("Durability tier " + name + " refers to unknown producer profile: " + tier.getProfile());
+            }
+            log.info("Registered durability tier [{}] -> profile [{}]: entities={}, eventTypes={}, formats={}",
+                    name, tier.getProfile(), tier.getEntities(), tier.getEventTypes(), tier.getFormats());
+        });
+    }
+
+    /**
+     * @return the producer profile for the event, or {@code null} for the default templates
+     */
+    public String profileFor(String entity, String eventType, KafkaEventFormat format) {
+        String profile = resolved.computeIfAbsent(entity + '|' + eventType + '|' + format, k -> {
+            for (DurabilityTier tier : config.getTiers().values()) {
+                if (tier.matches(entity, eventType, format)) {
+                    return tier.getProfile();
+                }
+            }
+            return config.getDefaultProfile() != null ? config.getDefaultProfile() : DEFAULT_TEMPLATES;
+        });
+        return profile.isEmpty() ? null : profile;
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("default_profile", config.getDefaultProfile());
+        Map<String, Object> tiers = new LinkedHashMap<>();
+        config.getTiers().forEach((name, tier) -> {
+            Map<String, Object> entry = new HashMap<>();
+            entry.put("profile", tier.getProfile());
+            entry.put("entities", tier.getEntities());
+            entry.put("event_types", tier.getEventTypes());
+            entry.put("formats", tier.getFormats());
+            tiers.put(name, entry);
+        });
+        status.put("tiers", tiers);
+        status.put("resolved", new HashMap<>(resolved));
+        return status;
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.demo.kafka.producer.profile;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.kafka.config.KafkaEventFormat;
+import com.example.demo.kafka.config.KafkaProducerConfig;
+import com.example.demo.kafka.config.ProducerProfilesConfig;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * One {@link KafkaTemplate} per configured producer profile and format, built at startup so a
+ * misconfigured profile fails the application instead of its first send. A {@code null} profile
+ * selects the default templates.
+ */
+@Slf4j
+@Component
+public class ProducerProfileTemplates {
+
+    private final KafkaTemplate<String, Object> avroKafkaTemplate;
+    private final KafkaTemplate<String, Object> jsonKafkaTemplate;
+    private final KafkaTemplate<String, String> stringKafkaTemplate;
+    private final Map<String, ProfileTemplates> profiles = new LinkedHashMap<>();
+
+    public ProducerProfileTemplates(ProducerProfilesConfig config,
+                                    KafkaProducerConfig kafkaProducerConfig,
+                                    @Qualifier("avroKafkaTemplate") KafkaTemplate<String, Object> avroKafkaTemplate,
+                                    @Qualifier("jsonKafkaTemplate") KafkaTemplate<String, Object> jsonKafkaTemplate,
+                                    @Qualifier("stringKafkaTemplate") KafkaTemplate<String, String> stringKafkaTemplate) {
+        this.avroKafkaTemplate = avroKafkaTemplate;
+        this.jsonKafkaTemplate = jsonKafkaTemplate;
+        this.stringKafkaTemplate = stringKafkaTemplate;
+        config.getProfiles().forEach((name, profile) -> {
+            ProducerFactory<String, Object> avroFactory = kafkaProducerConfig.profileProducerFactory(KafkaEventFormat.AVRO, name, profile);
+            ProducerFactory<String, Object> jsonFactory = kafkaProducerConfig.profileProducerFactory(KafkaEventFormat.JSON, name, profile);
+            ProducerFactory<String, String> stringFactory = kafkaProducerConfig.profileProducerFactory(KafkaEventFormat.STRING, name, profile);
+            profiles.put(name, new ProfileTemplates(template(avroFactory), template(jsonFactory), template(stringFactory)));
+            Map<String, Object> effective = avroFactory.getConfigurationProperties();
+            log.info("Registered producer profile [{}]: acks={}, linger.ms={}, batch.size={}, compression={}, idempotent={}",
+                    name, effective.get(ProducerConfig.ACKS_CONFIG), effective.get(ProducerConfig.LINGER_MS_CONFIG),
+                    effective.get(ProducerConfig.BATCH_SIZE_CONFIG), effective.get(ProducerConfig.COMPRESSION_TYPE_CONFIG),
+                    effective.get(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG));
+        });
+    }
+
+    private static <V> KafkaTemplate<String, V> template(ProducerFactory<String, V> factory) {
+        KafkaTemplate<String, V> template = new KafkaTemplate<>(factory);
+        template.setObservationEnabled(true); // Enable Micrometer metrics
+        return template;
+    }
+
+    public KafkaTemplate<String, Object> avroTemplate(String profile) {
+        return profile == null ? avroKafkaTemplate : profile(profile).avro();
+    }
+
+    public KafkaTemplate<String, Object> jsonTemplate(String profile) {
+        return profile == null ? jsonKafkaTemplate : profile(profile).json();
+    }
+
+    public KafkaTemplate<String, String> stringTemplate(String profile) {
+        return profile == null ? stringKafkaTemplate : profile(profile).string();
+    }
+
+    public boolean hasProfile(String profile) {
+        return profiles.containsKey(profile);
+    }
+
+    private ProfileTemplates profile(String profile) {
+        ProfileTemplates templates = profiles.get(profile);
+        if (templates == null) {
+            throw new IllegalArgumentException("Unknown producer profile: " + profile + ", configured: " + profiles.keySet());
+        }
+        return templates;
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        profiles.forEach((name, templates) -> {
+            Map<String, Object> effective = templates.avro().getProducerFactory().getConfigurationProperties();
+            Map<String, Object> profile = new HashMap<>();
+            profile.put("acks", effective.get(ProducerConfig.ACKS_CONFIG));
+            profile.put("linger_ms", effective.get(ProducerConfig.LINGER_MS_CONFIG));
+            profile.put("batch_size", effective.get(ProducerConfig.BATCH_SIZE_CONFIG));
+            profile.put("compression_type", effective.get(ProducerConfig.COMPRESSION_TYPE_CONFIG));
+            profile.put("max_in_flight_requests", effective.get(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION));
+            profile.put("idempotent", effective.get(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG));
+            profile.put("delivery_timeout_ms", effective.get(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG));
+            status.put(name, profile);
+        });
+        return status;
+    }
+
+    @PreDestroy
+    public void close() {
+        profiles.values().forEach(templates -> {
+            templates.avro().getProducerFactory().reset();
+            templates.json().getProducerFactory().reset();
+            templates.string().getProducerFactory().reset();
+        });
+    }
+
+    private record ProfileTemplates(KafkaTemplate<String, Object> avro,
+                                    KafkaTemplate<String, Object> json,
+                                    KafkaTemplate<String, String> string) {
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.demo.kafka.producer.publisher;
+
+import org.springframework.stereotype.Component;
+
+import com.example.avro.AvroAddress;
+import com.example.avro.mapper.AvroAddressMapper;
+import com.example.common.JsonUtil;
+import com.example.demo.app.dto.AddressDto;
+import com.example.demo.app.entity.Address;
+import com.example.demo.kafka.fingerprint.FingerprintTracker;
+import com.example.demo.kafka.producer.KafkaEventProducer;
+import com.example.demo.kafka.producer.profile.DurabilityTiers;
+import com.example.demo.kafka.producer.publisher.generic.SimpleKafkaEventPublisher;
+
+
+@Component
+public class AddressEventPublisher extends SimpleKafkaEventPublisher<Address, AvroAddress> {
+
+    private final AvroAddressMapper mapper;
+
+    public AddressEventPublisher(KafkaEventProducer kafkaEventProducer, FingerprintTracker fingerprintTracker,
+                                 DurabilityTiers durabilityTiers, AvroAddressMapper mapper) {
+        super(kafkaEventProducer, fingerprintTracker, durabilityTiers);
+        this.mapper = mapper;
+    }
+
+    @Override
+    protected Class<Address> getEntityClass() {
+        return Address.class;
+    }
+
+    @Override
+    protected String extractKey(Address entity) {
+        return entity.getId().toString();
+    }
+
+    @Override
+    protected AvroAddress toAvro(Address entity) {
+        return mapper.toAvro(entity);
+    }
+
+    // The entity links back to its user, so it is written through the DTO
+    @Override
+    protected String toJson(Address entity) {
+        return JsonUtil.toJson(new AddressDto(String.valueOf(entity.getId()), entity.getStreet(),
+                entity.getCity(), entity.getState(), entity.getZip()));
+    }
+
+    @Override
+    protected String getEventSource() {
+       return "AddressEventPublisher";
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.demo.kafka.producer.publisher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.app.entity.Address;
+import com.example.demo.app.entity.User;
+import com.example.demo.kafka.config.KafkaEventFormat;
+import com.example.demo.kafka.producer.transaction.AggregateTransactionPublisher;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Publishes a user event together with the same event for each of its addresses in one
+ * transaction, so read_committed consumers never see a user without its addresses.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class UserAggregatePublisher {
+
+    private final UserEventPublisher userEventPublisher;
+    private final AddressEventPublisher addressEventPublisher;
+    private final AggregateTransactionPublisher transactionPublisher;
+
+    public CompletableFuture<List<RecordMetadata>> publishAggregate(User user, String eventType, KafkaEventFormat format) {
+        List<Address> addresses = user.getAddresses() != null ? user.getAddresses() : List.of();
+        log.info("Entry @class UserAggregatePublisher @method publishAggregate user: {} with event type: {}, format: {} and [{}] addresses",
+                user.getId(), eventType, format, addresses.size());
+        List<ProducerRecord<String, Object>> records = new ArrayList<>(addresses.size() + 1);
+        records.add(userEventPublisher.toRecord(user, eventType, format));
+        for (Address address : addresses) {
+            records.add(addressEventPublisher.toRecord(address, eventType, format));
+        }
+        return transactionPublisher.publish("user-" + user.getId(), format, records);
+    }
+
+    public CompletableFuture<List<RecordMetadata>> publishCreate(User user, KafkaEventFormat format) {
+        return publishAggregate(user, "create", format);
+    }
+
+    public CompletableFuture<List<RecordMetadata>> publishUpdate(User user, KafkaEventFormat format) {
+        return publishAggregate(user, "update", format);
+    }
+
+    public CompletableFuture<List<RecordMetadata>> publishDelete(User user, KafkaEventFormat format) {
+        return publishAggregate(user, "delete", format);
+    }
+}
@@ -6,7 +6,9 @@ import com.example.avro.AvroUser;
 import com.example.avro.mapper.AvroUserMapper;
 import com.example.demo.app.entity.User;
 import com.example.demo.kafka.config.KafkaEventFormat;
+import com.example.demo.kafka.fingerprint.FingerprintTracker;
 import com.example.demo.kafka.producer.KafkaEventProducer;
+import com.example.demo.kafka.producer.profile.DurabilityTiers;
 import com.example.demo.kafka.producer.publisher.generic.SimpleKafkaEventPublisher;
 
 
@@ -15,8 +17,9 @@ public class UserEventPublisher extends SimpleKafkaEventPublisher<User, AvroUser
 
     private final AvroUserMapper mapper;
 
-    public UserEventPublisher(KafkaEventProducer kafkaEventProducer, AvroUserMapper mapper) {
-        super(kafkaEventProducer);
+    public UserEventPublisher(KafkaEventProducer kafkaEventProducer, FingerprintTracker fingerprintTracker,
+                              DurabilityTiers durabilityTiers, AvroUserMapper mapper) {
+        super(kafkaEventProducer, fingerprintTracker, durabilityTiers);
         this.mapper = mapper;
     }
 
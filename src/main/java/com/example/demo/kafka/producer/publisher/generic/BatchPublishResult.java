@@ -0,0 +1,65 @@
+package com.example.demo.kafka.producer.publisher.generic;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+
+import org.apache.kafka.clients.producer.RecordMetadata;
+
+/**
+ * Outcome of {@link SimpleKafkaEventPublisher#publishAll}: one item per entity, in the order
+ * they were passed, with the record metadata of a successful send or the error of a failed one.
+ * Entities dropped as unchanged updates are marked skipped.
+ */
+public record BatchPublishResult<Entity>(List<Item<Entity>> items) {
+
+    public record Item<Entity>(Entity entity, String key, RecordMetadata metadata, Throwable error, boolean skipped) {
+
+        public boolean isSuccess() {
+            return !skipped && error == null;
+        }
+    }
+
+    public long getSucceeded() {
+        return items.stream().filter(Item::isSuccess).count();
+    }
+
+    public long getFailed() {
+        return items.stream().filter(item -> item.error() != null).count();
+    }
+
+    public long getSkipped() {
+        return items.stream().filter(Item::skipped).count();
+    }
+
+    public List<Item<Entity>> getFailures() {
+        return items.stream().filter(item -> item.error() != null).toList();
+    }
+
+    /**
+     * Completes once every send has completed, successfully or not; it never completes
+     * exceptionally because of individual failures.
+     */
+    static <Entity> CompletableFuture<BatchPublishResult<Entity>> collect(List<Entity> entities, List<String> keys,
+                                                                           List<Boolean> skipped,
+                                                                           List<CompletableFuture<RecordMetadata>> sends) {
+        return CompletableFuture.allOf(sends.toArray(new CompletableFuture[0])).handle((ignored, ex) -> {
+            List<Item<Entity>> items = new ArrayList<>(entities.size());
+            int send = 0;
+            for (int i = 0; i < entities.size(); i++) {
+                if (skipped.get(i)) {
+                    items.add(new Item<>(entities.get(i), keys.get(i), null, null, true));
+                    continue;
+                }
+                CompletableFuture<RecordMetadata> future = sends.get(send++);
+                if (future.state() == Future.State.SUCCESS) {
+                    items.add(new Item<>(entities.get(i), keys.get(i), future.resultNow(), null, false));
+                } else {
+                    items.add(new Item<>(entities.get(i), keys.get(i), null, future.exceptionNow(), false));
+                }
+            }
+            return new BatchPublishResult<>(items);
+        });
+    }
+}
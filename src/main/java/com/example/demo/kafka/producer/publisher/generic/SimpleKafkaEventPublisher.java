@@ -1,12 +1,22 @@
 package com.example.demo.kafka.producer.publisher.generic;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 import org.apache.avro.specific.SpecificRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.header.Header;
 
-import com.example.avro.AvroEventWrapper;
 import com.example.demo.kafka.config.KafkaEventFormat;
 import com.example.demo.kafka.factory.EventFactory;
 import com.example.demo.kafka.factory.EventWrapper;
+import com.example.demo.kafka.fingerprint.FingerprintTracker;
+import com.example.demo.kafka.fingerprint.PayloadFingerprint;
 import com.example.demo.kafka.producer.KafkaEventProducer;
+import com.example.demo.kafka.producer.profile.DurabilityTiers;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -17,6 +27,8 @@ public abstract class SimpleKafkaEventPublisher<Entity, TPayload>
                 implements IGenericEventPublisher<Entity> {
 
     protected final KafkaEventProducer kafkaEventProducer;
+    protected final FingerprintTracker fingerprintTracker;
+    protected final DurabilityTiers durabilityTiers;
 
     private static final String DEFAULT_VERSION = "v1";
 
@@ -54,6 +66,14 @@ public abstract class SimpleKafkaEventPublisher<Entity, TPayload>
         return getTopic(eventType, KafkaEventFormat.AVRO); // default to AVRO for backward compatibility
     }
     
+    /**
+     * Producer profile used for events of this type and format: by default the profile of the
+     * matching {@code kafka.producer.durability} tier; {@code null} uses the default templates.
+     */
+    protected String getProducerProfile(String eventType, KafkaEventFormat format) {
+        return durabilityTiers.profileFor(getEntityClassType(), eventType, format);
+    }
+
     protected String toJson(Entity entity) {
         return com.example.common.JsonUtil.toJson(entity);
     }
@@ -66,22 +86,133 @@ public abstract class SimpleKafkaEventPublisher<Entity, TPayload>
     public void publish(Entity entity, String eventType, KafkaEventFormat format) {
         String key = extractKey(entity);
         String topic = getTopic(eventType, format);
+        String profile = getProducerProfile(eventType, format);
         log.info("Entry @class SimpleKafkaEventPublisher @method publish topic: {} with event type: {} and format: {}", topic, eventType, format);
         switch (format) {
             case AVRO:
                 TPayload avroPayload = toAvro(entity);
-                com.example.avro.AvroEventWrapper avroEvent = com.example.demo.kafka.factory.EventFactory.createAvro(avroPayload, eventType, getEntityClassType(), getEventSource(), topic, DEFAULT_VERSION);
-                kafkaEventProducer.sendAvro(topic, key, avroEvent);
+                SpecificRecord avroEvent = EventFactory.createAvroEnvelope(avroPayload, eventType, getEntityClassType(), getEventSource(), topic, DEFAULT_VERSION);
+                if (fingerprintTracker.isEnabled() && avroPayload instanceof SpecificRecord record) {
+                    long fingerprint = PayloadFingerprint.of(record);
+                    if (fingerprintTracker.shouldSkipPublish(getEntityClassType(), key, eventType, fingerprint)) {
+                        log.info("Skipping unchanged {} event for {} key: {}", eventType, getEntityClassType(), key);
+                        break;
+                    }
+                    kafkaEventProducer.sendAvro(profile, topic, key, avroEvent,
+                            List.of(PayloadFingerprint.toHeader(fingerprintTracker.getHeaderName(), fingerprint)))
+                            .thenAccept(metadata -> fingerprintTracker.recordPublished(getEntityClassType(), key, eventType, fingerprint));
+                    break;
+                }
+                kafkaEventProducer.sendAvro(profile, topic, key, avroEvent, List.of());
                 break;
             case JSON:
                 String jsonPayload = toJson(entity);
                 com.example.demo.kafka.factory.EventWrapper<String> jsonEvent = com.example.demo.kafka.factory.EventFactory.createJson(jsonPayload, eventType, getEntityClassType(), getEventSource(), topic, DEFAULT_VERSION);
-                kafkaEventProducer.sendJson(topic, key, jsonEvent);
+                kafkaEventProducer.sendJson(profile, topic, key, jsonEvent);
                 break;
             case STRING:
                 String stringPayload = entity.toString();
-                kafkaEventProducer.sendString(topic, key, stringPayload);
+                kafkaEventProducer.sendString(profile, topic, key, stringPayload);
+                break;
+        }
+    }
+
+    /**
+     * Publishes one event per entity, all with the same event type and format. The topic and
+     * envelope fields are resolved once, the envelopes are built in one pass and all records
+     * are handed to the template without waiting in between.
+     * @return completes when every send has completed, with a result per entity; failures of
+     *         single sends are reported in the result rather than failing the future
+     */
+    public CompletableFuture<BatchPublishResult<Entity>> publishAll(Collection<Entity> entities, String eventType, KafkaEventFormat format) {
+        String topic = getTopic(eventType, format);
+        String profile = getProducerProfile(eventType, format);
+        String entityType = getEntityClassType();
+        String source = getEventSource();
+        log.info("Entry @class SimpleKafkaEventPublisher @method publishAll topic: {} with event type: {}, format: {} and [{}] entities",
+                topic, eventType, format, entities.size());
+
+        List<Entity> ordered = new ArrayList<>(entities);
+        List<String> keys = new ArrayList<>(ordered.size());
+        List<Boolean> skipped = new ArrayList<>(ordered.size());
+        List<CompletableFuture<RecordMetadata>> sends;
+        switch (format) {
+            case AVRO: {
+                List<ProducerRecord<String, Object>> records = new ArrayList<>(ordered.size());
+                List<Long> fingerprints = new ArrayList<>(ordered.size());
+                for (Entity entity : ordered) {
+                    String key = extractKey(entity);
+                    TPayload avroPayload = toAvro(entity);
+                    Long fingerprint = null;
+                    List<Header> headers = List.of();
+                    if (fingerprintTracker.isEnabled() && avroPayload instanceof SpecificRecord record) {
+                        fingerprint = PayloadFingerprint.of(record);
+                        if (fingerprintTracker.shouldSkipPublish(entityType, key, eventType, fingerprint)) {
+                            keys.add(key);
+                            skipped.add(true);
+                            continue;
+                        }
+                        headers = List.of(PayloadFingerprint.toHeader(fingerprintTracker.getHeaderName(), fingerprint));
+                    }
+                    SpecificRecord avroEvent = EventFactory.createAvroEnvelope(avroPayload, eventType, entityType, source, topic, DEFAULT_VERSION);
+                    records.add(new ProducerRecord<>(topic, null, key, avroEvent, headers));
+                    fingerprints.add(fingerprint);
+                    keys.add(key);
+                    skipped.add(false);
+                }
+                sends = kafkaEventProducer.sendAvroAll(profile, records);
+                for (int i = 0; i < sends.size(); i++) {
+                    String key = records.get(i).key();
+                    Long fingerprint = fingerprints.get(i);
+                    if (fingerprint != null) {
+                        sends.get(i).thenAccept(metadata -> fingerprintTracker.recordPublished(entityType, key, eventType, fingerprint));
+                    }
+                }
+                break;
+            }
+            case JSON: {
+                List<ProducerRecord<String, Object>> records = new ArrayList<>(ordered.size());
+                for (Entity entity : ordered) {
+                    String key = extractKey(entity);
+                    EventWrapper<String> jsonEvent = EventFactory.createJson(toJson(entity), eventType, entityType, source, topic, DEFAULT_VERSION);
+                    records.add(new ProducerRecord<>(topic, key, jsonEvent));
+                    keys.add(key);
+                    skipped.add(false);
+                }
+                sends = kafkaEventProducer.sendJsonAll(profile, records);
                 break;
+            }
+            default: {
+                List<ProducerRecord<String, String>> records = new ArrayList<>(ordered.size());
+                for (Entity entity : ordered) {
+                    String key = extractKey(entity);
+                    records.add(new ProducerRecord<>(topic, key, entity.toString()));
+                    keys.add(key);
+                    skipped.add(false);
+                }
+                sends = kafkaEventProducer.sendStringAll(profile, records);
+            }
+        }
+        return BatchPublishResult.collect(ordered, keys, skipped, sends);
+    }
+
+    /**
+     * Builds the record {@link #publish} would send for the entity, without sending it, for
+     * callers that send several records together (see {@code AggregateTransactionPublisher}).
+     * Only Avro and JSON envelopes are supported; the fingerprint check is not applied.
+     */
+    public ProducerRecord<String, Object> toRecord(Entity entity, String eventType, KafkaEventFormat format) {
+        String key = extractKey(entity);
+        String topic = getTopic(eventType, format);
+        switch (format) {
+            case AVRO:
+                return new ProducerRecord<>(topic, key, EventFactory.createAvroEnvelope(toAvro(entity), eventType,
+                        getEntityClassType(), getEventSource(), topic, DEFAULT_VERSION));
+            case JSON:
+                return new ProducerRecord<>(topic, key, EventFactory.createJson(toJson(entity), eventType,
+                        getEntityClassType(), getEventSource(), topic, DEFAULT_VERSION));
+            default:
+                throw new IllegalArgumentException("Records can only be built for AVRO and JSON, not " + format);
         }
     }
 
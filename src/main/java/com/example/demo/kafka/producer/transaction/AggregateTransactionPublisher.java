@@ -0,0 +1,196 @@
+package com.example.demo.kafka.producer.transaction;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.kafka.config.EnvelopeConfig;
+import com.example.demo.kafka.config.KafkaEventFormat;
+import com.example.demo.kafka.config.KafkaProducerConfig;
+import com.example.demo.kafka.config.ProducerTransactionConfig;
+import com.example.demo.kafka.factory.EventHeaders;
+import com.example.demo.kafka.producer.breaker.TopicCircuitBreakers;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Publishes the events of an aggregate (e.g. a user and all its addresses) in one Kafka
+ * transaction, so read_committed consumers see all of them or none.
+ * <p>
+ * Each format has a fixed pool of single-thread workers, and every worker owns one
+ * transactional producer whose id is derived from the instance id and the worker index. The
+ * ids are therefore the same after a restart, and the new producer fences the one it replaces
+ * instead of leaving its transaction for the coordinator to time out. An aggregate key always
+ * maps to the same worker, so transactions of one aggregate are committed in call order.
+ */
+@Slf4j
+@Component
+public class AggregateTransactionPublisher {
+
+    private final ProducerTransactionConfig config;
+    private final TopicCircuitBreakers circuitBreakers;
+    private final EnvelopeConfig envelopeConfig;
+    private final String instanceId;
+    private final Map<KafkaEventFormat, Worker[]> workers = new HashMap<>();
+
+    private final LongAdder committed = new LongAdder();
+    private final LongAdder aborted = new LongAdder();
+    private final LongAdder recordsCommitted = new LongAdder();
+
+    public AggregateTransactionPublisher(ProducerTransactionConfig config,
+                                         KafkaProducerConfig kafkaProducerConfig,
+                                         TopicCircuitBreakers circuitBreakers,
+                                         EnvelopeConfig envelopeConfig) {
+        this.config = config;
+        this.circuitBreakers = circuitBreakers;
+        this.envelopeConfig = envelopeConfig;
+        this.instanceId = resolveInstanceId();
+        if (!config.isEnabled()) {
+            return;
+        }
+        int threads = Math.max(1, config.getProducerThreads());
+        for (KafkaEventFormat format : List.of(KafkaEventFormat.AVRO, KafkaEventFormat.JSON)) {
+            Worker[] formatWorkers = new Worker[threads];
+            for (int i = 0; i < threads; i++) {
+                String name = config.getIdPrefix() + "-" + instanceId + "-" + format.name().toLowerCase() + "-" + i;
+                DefaultKafkaProducerFactory<String, Object> factory = kafkaProducerConfig.transactionalProducerFactory(
+                        format, name + "-", config.getTransactionTimeoutMs());
+                KafkaTemplate<String, Object> template = new KafkaTemplate<>(factory);
+                template.setObservationEnabled(true); // Enable Micrometer metrics
+                formatWorkers[i] = new Worker(factory, template, Executors.newSingleThreadExecutor(r -> {
+                    Thread thread = new Thread(r, "aggregate-tx-" + name);
+                    thread.setDaemon(true);
+                    return thread;
+                }));
+            }
+            workers.put(format, formatWorkers);
+        }
+        log.info("Transactional aggregate publishing enabled: {} producers per format, transactional.id prefix {}-{}",
+                threads, config.getIdPrefix(), instanceId);
+    }
+
+    private String resolveInstanceId() {
+        if (config.getInstanceId() != null && !config.getInstanceId().isBlank()) {
+            return config.getInstanceId().trim();
+        }
+        String hostname = System.getenv("HOSTNAME");
+        if (hostname != null && !hostname.isBlank()) {
+            return hostname;
+        }
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            throw new IllegalStateException("Cannot derive producer instance id; set kafka.producer.transactions.instance-id", e);
+        }
+    }
+
+    /**
+     * Sends all records in one transaction, committed once every record is acknowledged.
+     * @param aggregateKey selects the worker, so transactions of one aggregate never interleave
+     * @return the metadata of every record, in order; completes exceptionally if the
+     *         transaction was aborted, in which case none of the records is visible
+     */
+    public CompletableFuture<List<RecordMetadata>> publish(String aggregateKey, KafkaEventFormat format,
+                                                           List<ProducerRecord<String, Object>> records) {
+        if (!config.isEnabled()) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Transactional publishing is disabled"));
+        }
+        Worker[] formatWorkers = workers.get(format);
+        if (formatWorkers == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Aggregates can't be published as " + format));
+        }
+        if (records.isEmpty()) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+        for (ProducerRecord<String, Object> record : records) {
+            if (circuitBreakers.forTopic(record.topic()).isOpen()) {
+                return CompletableFuture.failedFuture(new IllegalStateException("Circuit breaker is open for topic " + record.topic()));
+            }
+        }
+
+        Worker worker = formatWorkers[Math.floorMod(aggregateKey.hashCode(), formatWorkers.length)];
+        try {
+            return CompletableFuture.supplyAsync(() -> inTransaction(worker, aggregateKey, records), worker.executor());
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Transactional publisher is shut down", e));
+        }
+    }
+
+    private List<RecordMetadata> inTransaction(Worker worker, String aggregateKey, List<ProducerRecord<String, Object>> records) {
+        try {
+            List<RecordMetadata> metadata = worker.template().executeInTransaction(operations -> {
+                List<CompletableFuture<SendResult<String, Object>>> sends = new ArrayList<>(records.size());
+                for (ProducerRecord<String, Object> record : records) {
+                    if (envelopeConfig.isMetadataHeaders()) {
+                        EventHeaders.addTo(record.headers(), record.value(), System.currentTimeMillis());
+                    }
+                    sends.add(operations.send(record));
+                }
+                operations.flush();
+                List<RecordMetadata> results = new ArrayList<>(sends.size());
+                for (CompletableFuture<SendResult<String, Object>> send : sends) {
+                    try {
+                        results.add(send.get().getRecordMetadata());
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException("Interrupted while publishing aggregate " + aggregateKey, e);
+                    } catch (ExecutionException e) {
+                        throw new IllegalStateException("Send failed for aggregate " + aggregateKey, e.getCause());
+                    }
+                }
+                return results;
+            });
+            committed.increment();
+            recordsCommitted.add(records.size());
+            log.info("Committed aggregate [{}] with [{}] records", aggregateKey, records.size());
+            return metadata;
+        } catch (RuntimeException e) {
+            aborted.increment();
+            log.error("Aborted transaction for aggregate [{}] with [{}] records: {}", aggregateKey, records.size(), e.getMessage());
+            throw e;
+        }
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("enabled", config.isEnabled());
+        statistics.put("transactional_id_prefix", config.getIdPrefix() + "-" + instanceId);
+        statistics.put("producers_per_format", config.isEnabled() ? Math.max(1, config.getProducerThreads()) : 0);
+        statistics.put("committed", committed.sum());
+        statistics.put("aborted", aborted.sum());
+        statistics.put("records_committed", recordsCommitted.sum());
+        return statistics;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.values().forEach(formatWorkers -> {
+            for (Worker worker : formatWorkers) {
+                worker.executor().shutdown();
+                worker.factory().reset();
+            }
+        });
+    }
+
+    private record Worker(DefaultKafkaProducerFactory<String, Object> factory,
+                          KafkaTemplate<String, Object> template,
+                          ExecutorService executor) {
+    }
+}
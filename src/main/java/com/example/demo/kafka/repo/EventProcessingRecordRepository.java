@@ -1,9 +1,16 @@
 package com.example.demo.kafka.repo;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.example.demo.kafka.entity.EventProcessingRecord;
 
 public interface EventProcessingRecordRepository extends JpaRepository<EventProcessingRecord, String> {
 
+    @Query("select max(r.offset) from EventProcessingRecord r where r.topic = :topic and r.partitionNumber = :partition")
+    Long findMaxOffset(@Param("topic") String topic, @Param("partition") Integer partition);
+
+    boolean existsByMessageId(String messageId);
+
 }
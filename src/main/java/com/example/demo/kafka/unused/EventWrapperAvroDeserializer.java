@@ -7,6 +7,7 @@ import org.apache.avro.generic.GenericRecord;
 import org.apache.avro.specific.SpecificRecord;
 import org.apache.kafka.common.serialization.Deserializer;
 
+import com.example.demo.kafka.consumer.serde.SpecificRecordConverter;
 import com.example.demo.kafka.factory.EventWrapper;
 
 import java.util.Map;
@@ -15,6 +16,7 @@ import java.util.Map;
 public class EventWrapperAvroDeserializer implements Deserializer<EventWrapper<? extends SpecificRecord>> {
 
     private final KafkaAvroDeserializer innerDeserializer = new KafkaAvroDeserializer();
+    private final SpecificRecordConverter recordConverter = SpecificRecordConverter.shared();
 
     @Override
     public void configure(Map<String, ?> configs, boolean isKey) {
@@ -41,32 +43,9 @@ public class EventWrapperAvroDeserializer implements Deserializer<EventWrapper<?
             // Extract the data payload
             Object dataPayload = generic.get("data");
             
-            final SpecificRecord specificPayload;
-            if (dataPayload instanceof GenericRecord) {
-                GenericRecord payloadRecord = (GenericRecord) dataPayload;
-                String payloadClassName = payloadRecord.getSchema().getFullName();
-                Class<?> payloadClass = Class.forName(payloadClassName);
-
-                specificPayload = (SpecificRecord) payloadClass
-                        .getDeclaredConstructor()
-                        .newInstance();
-
-                payloadRecord.getSchema().getFields().forEach(field -> {
-                    Object value = payloadRecord.get(field.name());
-                    try {
-                        payloadClass.getMethod(
-                            "set" + capitalize(field.name()),
-                            value.getClass()
-                        ).invoke(specificPayload, value);
-                    } catch (Exception e) {
-                        log.error("Failed to set field: {} on payload class: {} from topic {}: {}", 
-                                field.name(), payloadClassName, topic, e.getMessage(), e);
-                        throw new RuntimeException("Failed to set field: " + field.name(), e);
-                    }
-                });
-            } else {
-                specificPayload = null;
-            }
+            final SpecificRecord specificPayload = dataPayload instanceof GenericRecord payloadRecord
+                    ? recordConverter.convert(payloadRecord)
+                    : null;
 
             // Create EventWrapper with correct constructor
             EventWrapper<SpecificRecord> eventWrapper = new EventWrapper<>();
@@ -90,8 +69,4 @@ public class EventWrapperAvroDeserializer implements Deserializer<EventWrapper<?
     public void close() {
         innerDeserializer.close();
     }
-
-    private String capitalize(String input) {
-        return Character.toUpperCase(input.charAt(0)) + input.substring(1);
-    }
 }